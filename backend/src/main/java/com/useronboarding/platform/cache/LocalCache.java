@@ -0,0 +1,195 @@
+package com.useronboarding.platform.cache;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+// Size-bounded, TTL-expiring in-heap cache. Keys are spread over independently locked
+// segments so concurrent readers rarely contend on the same monitor; each segment evicts
+// with W-TinyLFU admission.
+public class LocalCache<K, V> {
+    private final Segment<K, V>[] segments;
+    private final long ttlMillis;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    public LocalCache(int maximumSize, Duration ttl) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize must be positive");
+        }
+        int segmentCount = maximumSize >= 1024 ? 16 : 1;
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment<>(Math.max(1, maximumSize / segmentCount), evictions);
+        }
+        this.ttlMillis = ttl == null || ttl.isZero() || ttl.isNegative() ? Long.MAX_VALUE : ttl.toMillis();
+    }
+
+    public V get(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        long now = System.currentTimeMillis();
+        synchronized (segment) {
+            Entry<V> entry = segment.get(key);
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            if (entry.expiresAt <= now) {
+                segment.remove(key);
+                expirations.increment();
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return entry.value;
+        }
+    }
+
+    // The loader runs outside the segment lock; two threads missing at once may both load
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V value = get(key);
+        if (value == null) {
+            value = loader.apply(key);
+            if (value != null) {
+                put(key, value);
+            }
+        }
+        return value;
+    }
+
+    public void put(K key, V value) {
+        put(key, value, Long.MAX_VALUE);
+    }
+
+    // Stores the value until the earlier of the cache TTL and the given wall-clock deadline
+    public void put(K key, V value, long expiresAtMillis) {
+        long now = System.currentTimeMillis();
+        long ttlDeadline = ttlMillis == Long.MAX_VALUE ? Long.MAX_VALUE : now + ttlMillis;
+        Entry<V> entry = new Entry<>(value, Math.min(ttlDeadline, expiresAtMillis));
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            segment.put(key, entry);
+        }
+    }
+
+    public void invalidate(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            segment.remove(key);
+        }
+    }
+
+    public void invalidateAll() {
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    public long size() {
+        long size = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), expirations.sum(), size());
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        int hash = key.hashCode();
+        hash ^= (hash >>> 16);
+        return segments[hash & (segments.length - 1)];
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    // W-TinyLFU: new keys land in a small LRU window. When the window overflows, its eldest key
+    // only replaces the main region's LRU victim if the sketch has seen it requested more often,
+    // so a burst of one-off keys cannot flush out the entries that are read all the time.
+    private static final class Segment<K, V> {
+        private final LinkedHashMap<K, Entry<V>> window = new LinkedHashMap<>(16, 0.75f, true);
+        private final LinkedHashMap<K, Entry<V>> main = new LinkedHashMap<>(16, 0.75f, true);
+        private final FrequencySketch sketch;
+        private final int windowCapacity;
+        private final int mainCapacity;
+        private final LongAdder evictions;
+
+        Segment(int capacity, LongAdder evictions) {
+            this.windowCapacity = Math.max(1, capacity / 100);
+            this.mainCapacity = capacity - windowCapacity;
+            this.sketch = new FrequencySketch(capacity);
+            this.evictions = evictions;
+        }
+
+        Entry<V> get(K key) {
+            sketch.increment(key);
+            Entry<V> entry = window.get(key);
+            return entry != null ? entry : main.get(key);
+        }
+
+        void put(K key, Entry<V> entry) {
+            if (main.containsKey(key)) {
+                main.put(key, entry);
+                return;
+            }
+            window.put(key, entry);
+            if (window.size() > windowCapacity) {
+                Iterator<Map.Entry<K, Entry<V>>> eldest = window.entrySet().iterator();
+                Map.Entry<K, Entry<V>> candidate = eldest.next();
+                eldest.remove();
+                admit(candidate.getKey(), candidate.getValue());
+            }
+        }
+
+        private void admit(K key, Entry<V> entry) {
+            if (main.size() < mainCapacity) {
+                main.put(key, entry);
+                return;
+            }
+            if (mainCapacity > 0) {
+                Iterator<Map.Entry<K, Entry<V>>> eldest = main.entrySet().iterator();
+                K victim = eldest.next().getKey();
+                if (sketch.frequency(key) > sketch.frequency(victim)) {
+                    eldest.remove();
+                    main.put(key, entry);
+                }
+            }
+            evictions.increment();
+        }
+
+        Entry<V> remove(K key) {
+            Entry<V> entry = window.remove(key);
+            return entry != null ? entry : main.remove(key);
+        }
+
+        void clear() {
+            window.clear();
+            main.clear();
+        }
+
+        int size() {
+            return window.size() + main.size();
+        }
+    }
+}
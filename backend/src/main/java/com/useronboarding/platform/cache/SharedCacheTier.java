@@ -0,0 +1,13 @@
+package com.useronboarding.platform.cache;
+
+import java.time.Duration;
+
+// Cache shared by every application instance (for example a Redis or Memcached client).
+// Values must be treated as immutable once stored.
+public interface SharedCacheTier {
+    Object get(String key);
+
+    void put(String key, Object value, Duration ttl);
+
+    void evict(String key);
+}
@@ -0,0 +1,77 @@
+package com.useronboarding.platform.cache;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+// Local in-heap tier in front of an optional shared tier. Reads fall through local, then
+// shared, then the loader; invalidation clears both tiers. Keep the local TTL short when a
+// shared tier is configured, since other instances only see an eviction once it expires.
+public class TieredCache<K, V> {
+    private final String name;
+    private final LocalCache<K, V> local;
+    private final SharedCacheTier shared;
+    private final Duration sharedTtl;
+
+    private final LongAdder sharedHits = new LongAdder();
+    private final LongAdder sharedMisses = new LongAdder();
+
+    public TieredCache(String name, LocalCache<K, V> local, SharedCacheTier shared, Duration sharedTtl) {
+        this.name = name;
+        this.local = local;
+        this.shared = shared;
+        this.sharedTtl = sharedTtl;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        return local.get(key, k -> {
+            if (shared == null) {
+                return loader.apply(k);
+            }
+            String sharedKey = sharedKey(k);
+            V value = (V) shared.get(sharedKey);
+            if (value != null) {
+                sharedHits.increment();
+                return value;
+            }
+            sharedMisses.increment();
+            value = loader.apply(k);
+            if (value != null) {
+                shared.put(sharedKey, value, sharedTtl);
+            }
+            return value;
+        });
+    }
+
+    public void invalidate(K key) {
+        if (shared != null) {
+            shared.evict(sharedKey(key));
+        }
+        local.invalidate(key);
+    }
+
+    public boolean hasSharedTier() {
+        return shared != null;
+    }
+
+    public LocalCache<K, V> getLocal() {
+        return local;
+    }
+
+    public CacheStats sharedStats() {
+        return new CacheStats(sharedHits.sum(), sharedMisses.sum(), 0, 0, 0);
+    }
+
+    // Hits in either tier count as hits; misses are requests that reached the loader
+    public CacheStats stats() {
+        CacheStats localStats = local.stats();
+        long misses = shared == null ? localStats.getMisses() : sharedMisses.sum();
+        return new CacheStats(localStats.getHits() + sharedHits.sum(), misses, localStats.getEvictions(),
+                localStats.getExpirations(), localStats.getSize());
+    }
+
+    private String sharedKey(K key) {
+        return name + ":" + key;
+    }
+}
@@ -0,0 +1,19 @@
+package com.useronboarding.platform.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.useronboarding.platform.cache.InMemorySharedCacheTier;
+import com.useronboarding.platform.cache.SharedCacheTier;
+
+@Configuration
+public class CacheConfig {
+
+    // Without a shared tier bean the read caches run local-only
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.shared.provider", havingValue = "in-memory")
+    public SharedCacheTier sharedCacheTier() {
+        return new InMemorySharedCacheTier();
+    }
+}
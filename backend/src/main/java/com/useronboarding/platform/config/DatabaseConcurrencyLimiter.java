@@ -0,0 +1,156 @@
+package com.useronboarding.platform.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+import com.useronboarding.platform.exception.DatabaseBusyException;
+import com.useronboarding.platform.metrics.MetricsRegistry;
+import com.zaxxer.hikari.HikariDataSource;
+
+// Caps how many requests hold or wait for a connection at once. With virtual threads nothing
+// bounds request concurrency any more, and thousands of callers queueing inside Hikari would
+// each sit out its full connection timeout; here they wait briefly in a fair queue and then fail.
+// Platform threads are already bounded by Tomcat's pool, so there the limiter would only turn slow
+// requests into 503s, and it is not registered.
+@Component
+@ConditionalOnProperty(name = "app.execution.mode", havingValue = "virtual")
+public class DatabaseConcurrencyLimiter implements BeanPostProcessor {
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseConcurrencyLimiter.class);
+
+    // 0 matches the connection pool size
+    @Value("${app.execution.db.max-concurrency:0}")
+    private int maxConcurrency;
+
+    @Value("${app.execution.db.acquire-timeout-ms:2000}")
+    private long acquireTimeoutMs;
+
+    private final ObjectProvider<MetricsRegistry> metricsRegistry;
+
+    public DatabaseConcurrencyLimiter(ObjectProvider<MetricsRegistry> metricsRegistry) {
+        this.metricsRegistry = metricsRegistry;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource) || bean instanceof LimitedDataSource) {
+            return bean;
+        }
+        int permits = maxConcurrency;
+        if (permits <= 0) {
+            // Other wrappers may already sit in front of the pool
+            HikariDataSource hikari = DataSourceUnwrapper.unwrap((DataSource) bean, HikariDataSource.class);
+            // Hikari reports -1 until the pool starts, which stands for its default of 10
+            permits = hikari != null && hikari.getMaximumPoolSize() > 0 ? hikari.getMaximumPoolSize() : 10;
+        }
+        logger.info("Limiting data source '{}' to {} concurrent connections", beanName, permits);
+        return new LimitedDataSource((DataSource) bean, permits, acquireTimeoutMs, metricsRegistry);
+    }
+
+    static class LimitedDataSource extends DelegatingDataSource {
+        private final Semaphore permits;
+        private final long acquireTimeoutMs;
+        private final ObjectProvider<MetricsRegistry> metricsRegistry;
+
+        LimitedDataSource(DataSource target, int permits, long acquireTimeoutMs,
+                ObjectProvider<MetricsRegistry> metricsRegistry) {
+            super(target);
+            this.permits = new Semaphore(permits, true);
+            this.acquireTimeoutMs = acquireTimeoutMs;
+            this.metricsRegistry = metricsRegistry;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            acquire();
+            try {
+                return releasing(super.getConnection());
+            } catch (SQLException | RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            acquire();
+            try {
+                return releasing(super.getConnection(username, password));
+            } catch (SQLException | RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+
+        private void acquire() throws SQLException {
+            MetricsRegistry metrics = metricsRegistry.getIfAvailable();
+            long start = System.nanoTime();
+            boolean acquired;
+            try {
+                acquired = permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new DatabaseBusyException("Interrupted while waiting for a database connection");
+            }
+            if (metrics != null) {
+                metrics.timer("db.limiter.wait").record(System.nanoTime() - start);
+            }
+            if (!acquired) {
+                if (metrics != null) {
+                    metrics.counter("db.limiter.rejected").increment();
+                }
+                throw new DatabaseBusyException("No database connection became available within "
+                        + acquireTimeoutMs + " ms");
+            }
+        }
+
+        // The permit goes back exactly once, when the caller returns the connection to the pool
+        private Connection releasing(Connection connection) {
+            AtomicBoolean released = new AtomicBoolean();
+            return (Connection) Proxy.newProxyInstance(ConnectionProxy.class.getClassLoader(),
+                    new Class<?>[] { ConnectionProxy.class }, (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "close":
+                                if (released.compareAndSet(false, true)) {
+                                    try {
+                                        connection.close();
+                                    } finally {
+                                        permits.release();
+                                    }
+                                }
+                                return null;
+                            case "getTargetConnection":
+                                return connection;
+                            case "equals":
+                                return proxy == args[0];
+                            case "hashCode":
+                                return System.identityHashCode(proxy);
+                            default:
+                                break;
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        }
+                    });
+        }
+    }
+}
@@ -1,12 +1,17 @@
 package com.useronboarding.platform.config;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 
 import com.useronboarding.platform.model.ERole;
 import com.useronboarding.platform.model.Role;
+import com.useronboarding.platform.repository.CommentRepository;
+import com.useronboarding.platform.repository.PostRepository;
 import com.useronboarding.platform.repository.RoleRepository;
+import com.useronboarding.platform.service.CommentService;
 
 @Component
 public class DatabaseInitializer implements CommandLineRunner {
@@ -14,17 +19,64 @@ public class DatabaseInitializer implements CommandLineRunner {
     @Autowired
     private RoleRepository roleRepository;
 
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.counters.reconcile-on-startup:false}")
+    private boolean reconcileCounters;
+
+    private volatile Integer userRoleId;
+
+    // Signup assigns this role to every account; after startup it is a reference that costs no query
+    public Role getUserRole() {
+        Integer id = userRoleId;
+        if (id != null) {
+            return roleRepository.getReferenceById(id);
+        }
+        return roleRepository.findByName(ERole.ROLE_USER)
+                .orElseThrow(() -> new RuntimeException("Error: Role is not found."));
+    }
+
     @Override
     public void run(String... args) throws Exception {
         // Initialize roles if they don't exist
-        if (roleRepository.count() == 0) {
-            System.out.println("Initializing roles in database...");
-            Role userRole = new Role();
-            userRole.setName(ERole.ROLE_USER);
-            roleRepository.save(userRole);
-            System.out.println("ROLE_USER has been added to database");
-        } else {
-            System.out.println("Roles already exist in database. Skipping initialization.");
+        for (ERole name : ERole.values()) {
+            if (roleRepository.findByName(name).isEmpty()) {
+                System.out.println("Initializing " + name + " in database...");
+                Role role = new Role();
+                role.setName(name);
+                roleRepository.save(role);
+                System.out.println(name + " has been added to database");
+            }
+        }
+        userRoleId = getUserRole().getId();
+
+        // Rows written before updated_at existed start from their creation time
+        int backfilled = jdbcTemplate.update("UPDATE posts SET updated_at = created_at WHERE updated_at IS NULL")
+                + jdbcTemplate.update("UPDATE comments SET updated_at = created_at WHERE updated_at IS NULL")
+                + jdbcTemplate.update("UPDATE users SET updated_at = COALESCE(join_date, CURRENT_TIMESTAMP) WHERE updated_at IS NULL");
+        if (backfilled > 0) {
+            System.out.println("Backfilled updated_at for " + backfilled + " rows");
+        }
+
+        // Comments created before tree paths existed need one before subtree queries can see them
+        commentService.backfillPaths();
+
+        // Backfill like/comment/reply counters from the join tables
+        if (reconcileCounters) {
+            System.out.println("Reconciling post and comment counters...");
+            int posts = postRepository.recountAll();
+            int comments = commentRepository.recountAll();
+            System.out.println("Counters reconciled for " + posts + " posts and " + comments + " comments");
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,37 @@
+package com.useronboarding.platform.config;
+
+import org.apache.coyote.ProtocolHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+@Configuration
+public class ExecutionConfig {
+    private static final Logger logger = LoggerFactory.getLogger(ExecutionConfig.class);
+
+    @Value("${app.execution.mode:platform}")
+    private String mode;
+
+    // Filters, controllers and their blocking JPA calls all run on the connector's executor
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> requestExecutorCustomizer() {
+        if (!"virtual".equals(mode) && !"platform".equals(mode)) {
+            throw new IllegalStateException("Unknown app.execution.mode '" + mode + "'; use platform or virtual");
+        }
+        return protocolHandler -> {
+            if (!"virtual".equals(mode)) {
+                return;
+            }
+            try {
+                protocolHandler.setExecutor(new VirtualThreadTaskExecutor("http-virtual-"));
+                logger.info("Handling requests on virtual threads");
+            } catch (UnsupportedOperationException e) {
+                logger.warn("Virtual threads need Java 21 or newer; handling requests on platform threads");
+            }
+        };
+    }
+}
@@ -0,0 +1,121 @@
+package com.useronboarding.platform.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+import com.useronboarding.platform.metrics.RequestMetrics;
+
+// Times every statement execution, from Hibernate and JdbcTemplate alike, and reports it to
+// RequestMetrics. A batch is one round trip and counts once.
+@Component
+public class JdbcInstrumentation implements BeanPostProcessor {
+
+    @Value("${app.instrumentation.enabled:true}")
+    private boolean enabled;
+
+    private final ObjectProvider<RequestMetrics> requestMetrics;
+
+    public JdbcInstrumentation(ObjectProvider<RequestMetrics> requestMetrics) {
+        this.requestMetrics = requestMetrics;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!enabled || !(bean instanceof DataSource) || bean instanceof InstrumentedDataSource) {
+            return bean;
+        }
+        return new InstrumentedDataSource((DataSource) bean, requestMetrics);
+    }
+
+    static class InstrumentedDataSource extends DelegatingDataSource {
+        private final ObjectProvider<RequestMetrics> requestMetrics;
+
+        InstrumentedDataSource(DataSource target, ObjectProvider<RequestMetrics> requestMetrics) {
+            super(target);
+            this.requestMetrics = requestMetrics;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return instrument(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return instrument(super.getConnection(username, password));
+        }
+
+        private Connection instrument(Connection connection) {
+            RequestMetrics metrics = requestMetrics.getIfAvailable();
+            if (metrics == null) {
+                return connection;
+            }
+            return proxy(Connection.class, connection, (method, args) -> {
+                Object result = invoke(connection, method, args);
+                if (result instanceof Statement) {
+                    String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+                    return timed((Statement) result, sql, metrics);
+                }
+                return result;
+            });
+        }
+
+        private static Statement timed(Statement statement, String preparedSql, RequestMetrics metrics) {
+            Class<? extends Statement> type = statement instanceof CallableStatement ? CallableStatement.class
+                    : statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+            return proxy(type, statement, (method, args) -> {
+                if (!method.getName().startsWith("execute")) {
+                    return invoke(statement, method, args);
+                }
+                long start = System.nanoTime();
+                try {
+                    return invoke(statement, method, args);
+                } finally {
+                    String sql = preparedSql != null ? preparedSql
+                            : args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+                    metrics.recordStatement(sql, System.nanoTime() - start);
+                }
+            });
+        }
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Object handle(Method method, Object[] args) throws Throwable;
+    }
+
+    private static <T> T proxy(Class<T> type, Object target, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (self, method, args) -> {
+            switch (method.getName()) {
+                case "equals":
+                    return self == args[0];
+                case "hashCode":
+                    return System.identityHashCode(self);
+                default:
+                    return handler.handle(method, args);
+            }
+        }));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
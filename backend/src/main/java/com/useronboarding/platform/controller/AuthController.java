@@ -8,7 +8,9 @@ import java.util.stream.Collectors;
 import jakarta.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -20,16 +22,17 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.useronboarding.platform.model.ERole;
+import com.useronboarding.platform.config.DatabaseInitializer;
 import com.useronboarding.platform.model.Role;
 import com.useronboarding.platform.model.User;
 import com.useronboarding.platform.payload.request.LoginRequest;
 import com.useronboarding.platform.payload.request.SignupRequest;
 import com.useronboarding.platform.payload.response.JwtResponse;
 import com.useronboarding.platform.payload.response.MessageResponse;
-import com.useronboarding.platform.repository.RoleRepository;
+import com.useronboarding.platform.repository.UserIdentity;
 import com.useronboarding.platform.repository.UserRepository;
 import com.useronboarding.platform.security.jwt.JwtUtils;
+import com.useronboarding.platform.security.services.TokenVersionRegistry;
 import com.useronboarding.platform.security.services.UserDetailsImpl;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
@@ -43,7 +46,7 @@ public class AuthController {
     UserRepository userRepository;
 
     @Autowired
-    RoleRepository roleRepository;
+    DatabaseInitializer databaseInitializer;
 
     @Autowired
     PasswordEncoder encoder;
@@ -51,6 +54,9 @@ public class AuthController {
     @Autowired
     JwtUtils jwtUtils;
 
+    @Autowired
+    TokenVersionRegistry tokenVersionRegistry;
+
     @PostMapping("/signin")
     public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
 
@@ -74,34 +80,63 @@ public class AuthController {
 
     @PostMapping("/signup")
     public ResponseEntity<?> registerUser(@Valid @RequestBody SignupRequest signUpRequest) {
-        if (userRepository.existsByUsername(signUpRequest.getUsername())) {
-            return ResponseEntity
-                    .badRequest()
-                    .body(new MessageResponse("Error: Username is already taken!"));
-        }
-
-        if (userRepository.existsByEmail(signUpRequest.getEmail())) {
-            return ResponseEntity
-                    .badRequest()
-                    .body(new MessageResponse("Error: Email is already in use!"));
+        // One indexed lookup turns duplicates away before they take a slot on the hashing pool
+        ResponseEntity<?> taken = checkAvailable(signUpRequest);
+        if (taken != null) {
+            return taken;
         }
 
         // Create new user's account
-        User user = new User(null,
-                signUpRequest.getUsername(),
-                signUpRequest.getEmail(),
-                encoder.encode(signUpRequest.getPassword()),
-                null, null, null, new HashSet<>());
+        User user = new User();
+        user.setUsername(signUpRequest.getUsername());
+        user.setEmail(signUpRequest.getEmail());
+        user.setPassword(encoder.encode(signUpRequest.getPassword()));
 
         // Assign USER role to all users
         Set<Role> roles = new HashSet<>();
-        Role userRole = roleRepository.findByName(ERole.ROLE_USER)
-                .orElseThrow(() -> new RuntimeException("Error: Role is not found."));
-        roles.add(userRole);
-
+        roles.add(databaseInitializer.getUserRole());
         user.setRoles(roles);
-        userRepository.save(user);
+
+        // The unique keys on users still decide races between signups that both passed the checks
+        try {
+            userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            taken = checkAvailable(signUpRequest);
+            if (taken != null) {
+                return taken;
+            }
+            throw e;
+        }
 
         return ResponseEntity.ok(new MessageResponse("User registered successfully!"));
     }
+
+    @PostMapping("/signout-all")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<?> signOutEverywhere() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+
+        tokenVersionRegistry.revokeAll(userDetails.getId(), userDetails.getUsername());
+
+        return ResponseEntity.ok(new MessageResponse("All sessions have been signed out!"));
+    }
+
+    private ResponseEntity<?> checkAvailable(SignupRequest signUpRequest) {
+        List<UserIdentity> existing = userRepository.findIdentities(signUpRequest.getUsername(), signUpRequest.getEmail());
+        // Usernames and emails compare case-insensitively under the default MySQL collation
+        for (UserIdentity identity : existing) {
+            if (identity.getUsername().equalsIgnoreCase(signUpRequest.getUsername())) {
+                return ResponseEntity
+                        .badRequest()
+                        .body(new MessageResponse("Error: Username is already taken!"));
+            }
+        }
+        if (!existing.isEmpty()) {
+            return ResponseEntity
+                    .badRequest()
+                    .body(new MessageResponse("Error: Email is already in use!"));
+        }
+        return null;
+    }
 }
\ No newline at end of file
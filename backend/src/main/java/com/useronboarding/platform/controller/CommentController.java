@@ -7,21 +7,40 @@ import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import com.useronboarding.platform.dto.CommentDTO;
+import com.useronboarding.platform.dto.ReplyPageDTO;
+import com.useronboarding.platform.exception.ResourceNotFoundException;
+import com.useronboarding.platform.logging.SampledLogger;
+import com.useronboarding.platform.metrics.MetricsRegistry;
 import com.useronboarding.platform.model.Comment;
 import com.useronboarding.platform.model.Post;
 import com.useronboarding.platform.model.User;
 import com.useronboarding.platform.payload.request.CommentRequest;
+import com.useronboarding.platform.payload.response.LikeResponse;
 import com.useronboarding.platform.payload.response.MessageResponse;
 import com.useronboarding.platform.repository.CommentRepository;
 import com.useronboarding.platform.repository.PostRepository;
 import com.useronboarding.platform.repository.UserRepository;
+import com.useronboarding.platform.security.services.AuthenticatedUser;
 import com.useronboarding.platform.security.services.UserDetailsImpl;
+import com.useronboarding.platform.service.CommentService;
+import com.useronboarding.platform.service.CommentThreadService;
+import com.useronboarding.platform.service.EntityLoaders;
+import com.useronboarding.platform.service.KeysetCursor;
+import com.useronboarding.platform.service.LikeService;
+import com.useronboarding.platform.service.ResourceVersion;
+import com.useronboarding.platform.service.ResourceVersions;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
@@ -30,6 +49,9 @@ public class CommentController {
 
         private static final Logger logger = LoggerFactory.getLogger(CommentController.class);
 
+        // Comment adds and like toggles are the busiest writes here, so INFO only sees a sample of them
+        private static final SampledLogger successLog = SampledLogger.of(logger);
+
         @Autowired
         private CommentRepository commentRepository;
 
@@ -39,16 +61,62 @@ public class CommentController {
         @Autowired
         private UserRepository userRepository;
 
+        @Autowired
+        private CommentService commentService;
+
+        @Autowired
+        private LikeService likeService;
+
+        @Autowired
+        private CommentThreadService commentThreadService;
+
+        @Autowired
+        private ResourceVersions resourceVersions;
+
+        @Autowired
+        private MetricsRegistry metricsRegistry;
+
+        @Autowired
+        private EntityLoaders entityLoaders;
+
+        // Many comments at once, e.g. ?ids=3,1,2, in that order; missing ones are left out
+        @GetMapping(params = "ids")
+        public ResponseEntity<?> getCommentsByIds(@RequestParam String ids) {
+                List<Long> commentIds;
+                try {
+                        commentIds = entityLoaders.parseIds(ids);
+                } catch (IllegalArgumentException e) {
+                        return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+                }
+
+                try {
+                        return ResponseEntity.ok(commentThreadService.loadComments(commentIds,
+                                        AuthenticatedUser.currentUserIdOrNull()));
+                } catch (Exception e) {
+                        logger.error("Error fetching comments {}", ids, e);
+                        return ResponseEntity.status(500)
+                                        .body(new MessageResponse("Error fetching comments: " + e.getMessage()));
+                }
+        }
+
         @GetMapping("/post/{postId}")
-        public ResponseEntity<?> getCommentsByPost(@PathVariable Long postId) {
+        public ResponseEntity<?> getCommentsByPost(
+                        @PathVariable Long postId,
+                        @RequestParam(required = false) Integer depth,
+                        @RequestParam(required = false) Integer limit,
+                        WebRequest webRequest) {
                 try {
-                        logger.info("Fetching comments for post with id {}", postId);
-                        Post post = postRepository.findById(postId)
-                                        .orElseThrow(() -> new RuntimeException("Post not found with id " + postId));
-                        List<Comment> comments = commentRepository
-                                        .findByParentCommentIsNullAndPostOrderByCreatedAtDesc(post);
-                        logger.info("Found {} comments for post {}", comments.size(), postId);
-                        return ResponseEntity.ok(comments);
+                        Long viewerId = AuthenticatedUser.currentUserIdOrNull();
+                        ResourceVersion version = resourceVersions.thread(postId, depth, limit, viewerId);
+                        if (version != null && webRequest.checkNotModified(version.getETag())) {
+                                return notModifiedPerViewer();
+                        }
+                        logger.debug("Fetching comments for post with id {}", postId);
+                        List<CommentDTO> comments = commentThreadService.loadThread(postId, depth, limit, viewerId);
+                        logger.debug("Found {} comments for post {}", comments.size(), postId);
+                        return ResponseEntity.ok().varyBy(HttpHeaders.AUTHORIZATION).body(comments);
+                } catch (ResourceNotFoundException e) {
+                        return ResponseEntity.status(404).body(new MessageResponse(e.getMessage()));
                 } catch (Exception e) {
                         logger.error("Error fetching comments for post with id {}", postId, e);
                         return ResponseEntity.status(500)
@@ -57,14 +125,30 @@ public class CommentController {
         }
 
         @GetMapping("/{id}/replies")
-        public ResponseEntity<?> getReplies(@PathVariable Long id) {
+        public ResponseEntity<?> getReplies(
+                        @PathVariable Long id,
+                        @RequestParam(required = false) String cursor,
+                        @RequestParam(required = false) Integer limit,
+                        WebRequest webRequest) {
+                KeysetCursor position;
                 try {
-                        logger.info("Fetching replies for comment with id {}", id);
-                        Comment parentComment = commentRepository.findById(id)
-                                        .orElseThrow(() -> new RuntimeException("Comment not found with id " + id));
-                        List<Comment> replies = commentRepository.findByParentCommentOrderByCreatedAtAsc(parentComment);
-                        logger.info("Found {} replies for comment {}", replies.size(), id);
-                        return ResponseEntity.ok(replies);
+                        position = cursor == null || cursor.isEmpty() ? null : KeysetCursor.decode(cursor);
+                } catch (IllegalArgumentException e) {
+                        return ResponseEntity.badRequest().body(new MessageResponse("Invalid cursor"));
+                }
+
+                try {
+                        Long viewerId = AuthenticatedUser.currentUserIdOrNull();
+                        ResourceVersion version = resourceVersions.replies(id, cursor, limit, viewerId);
+                        if (version != null && webRequest.checkNotModified(version.getETag())) {
+                                return notModifiedPerViewer();
+                        }
+                        logger.debug("Fetching replies for comment with id {}", id);
+                        ReplyPageDTO page = commentThreadService.loadReplies(id, position, limit, viewerId);
+                        logger.debug("Found {} replies for comment {}", page.getReplies().size(), id);
+                        return ResponseEntity.ok().varyBy(HttpHeaders.AUTHORIZATION).body(page);
+                } catch (ResourceNotFoundException e) {
+                        return ResponseEntity.status(404).body(new MessageResponse(e.getMessage()));
                 } catch (Exception e) {
                         logger.error("Error fetching replies for comment with id {}", id, e);
                         return ResponseEntity.status(500)
@@ -72,13 +156,36 @@ public class CommentController {
                 }
         }
 
+        @GetMapping("/{id}/subtree")
+        public ResponseEntity<?> getSubtree(
+                        @PathVariable Long id,
+                        @RequestParam(required = false) Integer limit,
+                        WebRequest webRequest) {
+                try {
+                        Long viewerId = AuthenticatedUser.currentUserIdOrNull();
+                        ResourceVersion version = resourceVersions.subtree(id, limit, viewerId);
+                        if (version != null && webRequest.checkNotModified(version.getETag())) {
+                                return notModifiedPerViewer();
+                        }
+                        logger.debug("Fetching subtree of comment with id {}", id);
+                        CommentDTO subtree = commentThreadService.loadSubtree(id, limit, viewerId);
+                        return ResponseEntity.ok().varyBy(HttpHeaders.AUTHORIZATION).body(subtree);
+                } catch (ResourceNotFoundException e) {
+                        return ResponseEntity.status(404).body(new MessageResponse(e.getMessage()));
+                } catch (Exception e) {
+                        logger.error("Error fetching subtree of comment with id {}", id, e);
+                        return ResponseEntity.status(500)
+                                        .body(new MessageResponse("Error fetching comments: " + e.getMessage()));
+                }
+        }
+
         @PostMapping("/post/{postId}")
         @PreAuthorize("isAuthenticated()")
         public ResponseEntity<?> addComment(
                         @PathVariable Long postId,
                         @Valid @RequestBody CommentRequest commentRequest) {
                 try {
-                        logger.info("Adding comment to post with id {}", postId);
+                        logger.debug("Adding comment to post with id {}", postId);
                         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
                         UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
 
@@ -88,13 +195,8 @@ public class CommentController {
                         Post post = postRepository.findById(postId)
                                         .orElseThrow(() -> new RuntimeException("Post not found with id " + postId));
 
-                        Comment comment = new Comment();
-                        comment.setContent(commentRequest.getContent());
-                        comment.setUser(currentUser);
-                        comment.setPost(post);
-
-                        commentRepository.save(comment);
-                        logger.info("Comment added successfully to post {} by user {}", postId, userDetails.getId());
+                        commentService.addComment(post, currentUser, commentRequest.getContent());
+                        successLog.info("Comment added successfully to post {} by user {}", postId, userDetails.getId());
                         return ResponseEntity.ok(new MessageResponse("Comment added successfully!"));
                 } catch (Exception e) {
                         logger.error("Error adding comment to post with id {}", postId, e);
@@ -109,7 +211,7 @@ public class CommentController {
                         @PathVariable Long commentId,
                         @Valid @RequestBody CommentRequest commentRequest) {
                 try {
-                        logger.info("Adding reply to comment with id {}", commentId);
+                        logger.debug("Adding reply to comment with id {}", commentId);
                         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
                         UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
 
@@ -120,16 +222,12 @@ public class CommentController {
                                         .orElseThrow(() -> new RuntimeException(
                                                         "Comment not found with id " + commentId));
 
-                        Comment reply = new Comment();
-                        reply.setContent(commentRequest.getContent());
-                        reply.setUser(currentUser);
-                        reply.setPost(parentComment.getPost());
-                        reply.setParentComment(parentComment);
-
-                        commentRepository.save(reply);
-                        logger.info("Reply added successfully to comment {} by user {}", commentId,
+                        commentService.addReply(parentComment, currentUser, commentRequest.getContent());
+                        successLog.info("Reply added successfully to comment {} by user {}", commentId,
                                         userDetails.getId());
                         return ResponseEntity.ok(new MessageResponse("Reply added successfully!"));
+                } catch (IllegalArgumentException e) {
+                        return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
                 } catch (Exception e) {
                         logger.error("Error adding reply to comment with id {}", commentId, e);
                         return ResponseEntity.status(500)
@@ -143,7 +241,7 @@ public class CommentController {
                         @PathVariable Long id,
                         @Valid @RequestBody CommentRequest commentRequest) {
                 try {
-                        logger.info("Updating comment with id {}", id);
+                        logger.debug("Updating comment with id {}", id);
                         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
                         UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
 
@@ -157,10 +255,21 @@ public class CommentController {
                                                 .body(new MessageResponse("Not authorized to update this comment"));
                         }
 
+                        // An edit based on an older read is rejected rather than merged
+                        if (commentRequest.getVersion() != null
+                                        && commentRequest.getVersion() != comment.getVersion()) {
+                                throw new ObjectOptimisticLockingFailureException(Comment.class, id);
+                        }
+
                         comment.setContent(commentRequest.getContent());
                         commentRepository.save(comment);
                         logger.info("Comment {} updated successfully by user {}", id, userDetails.getId());
                         return ResponseEntity.ok(new MessageResponse("Comment updated successfully!"));
+                } catch (OptimisticLockingFailureException e) {
+                        metricsRegistry.counter("conflicts.comment.update").increment();
+                        logger.info("Rejected stale update of comment {}", id);
+                        return ResponseEntity.status(409).body(new MessageResponse(
+                                        "Comment was modified by someone else; reload it and try again"));
                 } catch (Exception e) {
                         logger.error("Error updating comment with id {}", id, e);
                         return ResponseEntity.status(500)
@@ -172,7 +281,7 @@ public class CommentController {
         @PreAuthorize("isAuthenticated()")
         public ResponseEntity<?> deleteComment(@PathVariable Long id) {
                 try {
-                        logger.info("Deleting comment with id {}", id);
+                        logger.debug("Deleting comment with id {}", id);
                         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
                         UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
 
@@ -186,8 +295,9 @@ public class CommentController {
                                                 .body(new MessageResponse("Not authorized to delete this comment"));
                         }
 
-                        commentRepository.delete(comment);
-                        logger.info("Comment {} deleted successfully by user {}", id, userDetails.getId());
+                        long removed = commentService.deleteComment(comment);
+                        logger.info("Comment {} and {} replies deleted successfully by user {}", id, removed - 1,
+                                        userDetails.getId());
                         return ResponseEntity.ok(new MessageResponse("Comment deleted successfully!"));
                 } catch (Exception e) {
                         logger.error("Error deleting comment with id {}", id, e);
@@ -200,36 +310,62 @@ public class CommentController {
         @PreAuthorize("isAuthenticated()")
         public ResponseEntity<?> likeComment(@PathVariable Long id) {
                 try {
-                        logger.info("Processing like for comment with id {}", id);
+                        logger.debug("Processing like for comment with id {}", id);
                         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
                         UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
 
-                        User currentUser = userRepository.findById(userDetails.getId())
-                                        .orElseThrow(() -> new RuntimeException("User not found"));
-
-                        Comment comment = commentRepository.findById(id)
-                                        .orElseThrow(() -> new RuntimeException("Comment not found with id " + id));
+                        boolean liked = likeService.toggleCommentLike(id, userDetails.getId()).isLiked();
+                        successLog.info("User {} {} comment {}", userDetails.getId(), liked ? "liked" : "unliked", id);
 
-                        List<User> likes = comment.getLikes();
-                        boolean wasLiked = likes.contains(currentUser);
-
-                        if (wasLiked) {
-                                likes.remove(currentUser);
-                                logger.info("User {} unliked comment {}", userDetails.getId(), id);
-                        } else {
-                                likes.add(currentUser);
-                                logger.info("User {} liked comment {}", userDetails.getId(), id);
-                        }
+                        String message = liked ? "Comment liked successfully!" : "Comment unliked successfully!";
+                        return ResponseEntity.ok(new MessageResponse(message));
+                } catch (Exception e) {
+                        logger.error("Error processing like for comment with id {}", id, e);
+                        return ResponseEntity.status(500)
+                                        .body(new MessageResponse("Error processing like: " + e.getMessage()));
+                }
+        }
 
-                        comment.setLikes(likes);
-                        commentRepository.save(comment);
+        @PutMapping("/{id}/like")
+        @PreAuthorize("isAuthenticated()")
+        public ResponseEntity<?> addLike(@PathVariable Long id) {
+                try {
+                        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+                        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
 
-                        String message = wasLiked ? "Comment unliked successfully!" : "Comment liked successfully!";
-                        return ResponseEntity.ok(new MessageResponse(message));
+                        LikeResponse response = likeService.likeComment(id, userDetails.getId());
+                        logger.debug("User {} liked comment {}", userDetails.getId(), id);
+                        return ResponseEntity.ok(response);
+                } catch (ResourceNotFoundException e) {
+                        return ResponseEntity.status(404).body(new MessageResponse(e.getMessage()));
                 } catch (Exception e) {
                         logger.error("Error processing like for comment with id {}", id, e);
                         return ResponseEntity.status(500)
                                         .body(new MessageResponse("Error processing like: " + e.getMessage()));
                 }
         }
+
+        @DeleteMapping("/{id}/like")
+        @PreAuthorize("isAuthenticated()")
+        public ResponseEntity<?> removeLike(@PathVariable Long id) {
+                try {
+                        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+                        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+
+                        LikeResponse response = likeService.unlikeComment(id, userDetails.getId());
+                        logger.debug("User {} unliked comment {}", userDetails.getId(), id);
+                        return ResponseEntity.ok(response);
+                } catch (ResourceNotFoundException e) {
+                        return ResponseEntity.status(404).body(new MessageResponse(e.getMessage()));
+                } catch (Exception e) {
+                        logger.error("Error processing unlike for comment with id {}", id, e);
+                        return ResponseEntity.status(500)
+                                        .body(new MessageResponse("Error processing unlike: " + e.getMessage()));
+                }
+        }
+
+        // Same as PostController: the ETags and bodies depend on the viewer, so 304s vary by token too
+        private static <T> ResponseEntity<T> notModifiedPerViewer() {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).varyBy(HttpHeaders.AUTHORIZATION).build();
+        }
 }
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.useronboarding.platform.controller;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import com.useronboarding.platform.metrics.MetricsRegistry;
+import com.useronboarding.platform.metrics.RequestMetrics;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/metrics")
+// Cache stats, route timings and entity-load counts describe the deployment, so only admins read them
+@PreAuthorize("hasRole('ADMIN')")
+public class MetricsController {
+
+    @Autowired
+    private MetricsRegistry metricsRegistry;
+
+    @Autowired
+    private RequestMetrics requestMetrics;
+
+    @GetMapping
+    public ResponseEntity<?> getMetrics() {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("caches", metricsRegistry.cacheStats());
+        response.put("timers", metricsRegistry.timerSnapshots());
+        response.put("counters", metricsRegistry.counterValues());
+        response.put("endpoints", requestMetrics.endpointSnapshots());
+        response.put("entityLoads", requestMetrics.entityLoadCounts());
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/timers")
+    public ResponseEntity<?> getTimerMetrics() {
+        return ResponseEntity.ok(metricsRegistry.timerSnapshots());
+    }
+
+    @GetMapping("/caches")
+    public ResponseEntity<?> getCacheMetrics() {
+        return ResponseEntity.ok(metricsRegistry.cacheStats());
+    }
+
+    @GetMapping("/endpoints")
+    public ResponseEntity<?> getEndpointMetrics() {
+        return ResponseEntity.ok(requestMetrics.endpointSnapshots());
+    }
+}
@@ -1,27 +1,49 @@
 package com.useronboarding.platform.controller;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 import jakarta.validation.Valid;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.useronboarding.platform.dto.DeletionJobDTO;
 import com.useronboarding.platform.dto.PostDTO;
+import com.useronboarding.platform.exception.ResourceNotFoundException;
+import com.useronboarding.platform.logging.SampledLogger;
+import com.useronboarding.platform.metrics.MetricsRegistry;
 import com.useronboarding.platform.model.Post;
 import com.useronboarding.platform.model.User;
 import com.useronboarding.platform.payload.request.PostRequest;
+import com.useronboarding.platform.payload.response.LikeResponse;
 import com.useronboarding.platform.payload.response.MessageResponse;
 import com.useronboarding.platform.repository.PostRepository;
 import com.useronboarding.platform.repository.UserRepository;
+import com.useronboarding.platform.security.services.AuthenticatedUser;
 import com.useronboarding.platform.security.services.UserDetailsImpl;
+import com.useronboarding.platform.service.EntityLoaders;
+import com.useronboarding.platform.service.FeedRenderer;
+import com.useronboarding.platform.service.FeedService;
+import com.useronboarding.platform.service.KeysetCursor;
+import com.useronboarding.platform.service.LikeService;
+import com.useronboarding.platform.service.PostCache;
+import com.useronboarding.platform.service.PostDeletionService;
+import com.useronboarding.platform.service.ResourceVersion;
+import com.useronboarding.platform.service.ResourceVersions;
+import com.useronboarding.platform.service.TimelineService;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
@@ -30,36 +52,151 @@ public class PostController {
 
     private static final Logger logger = LoggerFactory.getLogger(PostController.class);
 
+    // Hot success paths; every one is logged at DEBUG, a sample of them at INFO
+    private static final SampledLogger successLog = SampledLogger.of(logger);
+
     @Autowired
     private PostRepository postRepository;
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private FeedService feedService;
+
+    @Autowired
+    private LikeService likeService;
+
+    @Autowired
+    private PostDeletionService postDeletionService;
+
+    @Autowired
+    private PostCache postCache;
+
+    @Autowired
+    private FeedRenderer feedRenderer;
+
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private EntityLoaders entityLoaders;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    @Autowired
+    private MetricsRegistry metricsRegistry;
+
     @GetMapping
-    public ResponseEntity<?> getAllPosts() {
+    public ResponseEntity<StreamingResponseBody> getAllPosts(WebRequest webRequest) {
+        Long viewerId = AuthenticatedUser.currentUserIdOrNull();
+        if (webRequest.checkNotModified(resourceVersions.allPosts(viewerId).getETag())) {
+            return notModifiedPerViewer();
+        }
+        logger.debug("Streaming all posts");
+        // Walk the feed batch by batch so heap stays bounded by the batch size, not the table size
+        StreamingResponseBody body = outputStream -> feedRenderer.writeAll(outputStream, viewerId);
+        return ResponseEntity.ok()
+                .varyBy(HttpHeaders.AUTHORIZATION)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    // Many cards at once, e.g. ?ids=3,1,2; posts come back in that order and missing ones are left out
+    @GetMapping(params = "ids")
+    public ResponseEntity<?> getPostsByIds(@RequestParam String ids) {
+        List<Long> postIds;
         try {
-            logger.info("Fetching all posts");
-            List<Post> posts = postRepository.findAllByOrderByCreatedAtDesc();
-            List<PostDTO> postDTOs = posts.stream()
-                    .map(PostDTO::fromEntity)
-                    .collect(Collectors.toList());
-            logger.info("Found {} posts", posts.size());
-            return ResponseEntity.ok(postDTOs);
+            postIds = entityLoaders.parseIds(ids);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+
+        try {
+            return ResponseEntity.ok(feedService.getPosts(postIds, AuthenticatedUser.currentUserIdOrNull()));
+        } catch (Exception e) {
+            logger.error("Error fetching posts {}", ids, e);
+            return ResponseEntity.status(500).body(new MessageResponse("Error fetching posts: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/feed")
+    public ResponseEntity<?> getFeed(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest webRequest) {
+        KeysetCursor position;
+        try {
+            position = cursor == null || cursor.isEmpty() ? null : KeysetCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Invalid cursor"));
+        }
+
+        try {
+            Long viewerId = AuthenticatedUser.currentUserIdOrNull();
+            FeedRenderer.Page page = feedRenderer.findPage(position, feedService.resolvePageSize(limit));
+            ResourceVersion version = resourceVersions.feedPage(page.getKeys(), page.isHasMore(), viewerId);
+            if (webRequest.checkNotModified(version.getETag())) {
+                return notModifiedPerViewer();
+            }
+            byte[] body = feedRenderer.render(page, viewerId);
+            logger.debug("Served feed page of {} bytes", body.length);
+            return ResponseEntity.ok()
+                    .varyBy(HttpHeaders.AUTHORIZATION)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(body);
         } catch (Exception e) {
-            logger.error("Error fetching posts", e);
+            logger.error("Error fetching feed page", e);
             return ResponseEntity.status(500).body(new MessageResponse("Error fetching posts: " + e.getMessage()));
         }
     }
 
+    // Posts by the people the viewer follows, plus the viewer's own; same page shape and cursor as /feed
+    @GetMapping("/home")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<?> getHomeTimeline(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest webRequest) {
+        KeysetCursor position;
+        try {
+            position = cursor == null || cursor.isEmpty() ? null : KeysetCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Invalid cursor"));
+        }
+
+        try {
+            Long viewerId = AuthenticatedUser.currentUserIdOrNull();
+            FeedRenderer.Page page = timelineService.findHomePage(viewerId, position, feedService.resolvePageSize(limit));
+            ResourceVersion version = resourceVersions.feedPage(page.getKeys(), page.isHasMore(), viewerId);
+            if (webRequest.checkNotModified(version.getETag())) {
+                return notModifiedPerViewer();
+            }
+            byte[] body = feedRenderer.render(page, viewerId);
+            return ResponseEntity.ok()
+                    .varyBy(HttpHeaders.AUTHORIZATION)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(body);
+        } catch (Exception e) {
+            logger.error("Error fetching home timeline", e);
+            return ResponseEntity.status(500).body(new MessageResponse("Error fetching home timeline: " + e.getMessage()));
+        }
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<?> getPostById(@PathVariable Long id) {
+    public ResponseEntity<?> getPostById(@PathVariable Long id, WebRequest webRequest) {
         try {
-            logger.info("Fetching post with id {}", id);
-            Post post = postRepository.findById(id)
-                    .orElseThrow(() -> new RuntimeException("Post not found with id " + id));
-            PostDTO postDTO = PostDTO.fromEntity(post);
-            return ResponseEntity.ok(postDTO);
+            Long viewerId = AuthenticatedUser.currentUserIdOrNull();
+            ResourceVersion version = resourceVersions.post(id, viewerId);
+            if (version != null && webRequest.checkNotModified(version.getETag(), version.getLastModified())) {
+                return notModifiedPerViewer();
+            }
+            logger.debug("Fetching post with id {}", id);
+            PostDTO postDTO = feedService.getPost(id, viewerId);
+            return ResponseEntity.ok().varyBy(HttpHeaders.AUTHORIZATION).body(postDTO);
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(404).body(new MessageResponse(e.getMessage()));
         } catch (Exception e) {
             logger.error("Error fetching post with id {}", id, e);
             return ResponseEntity.status(500).body(new MessageResponse("Error fetching post: " + e.getMessage()));
@@ -67,17 +204,19 @@ public class PostController {
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<?> getPostsByUser(@PathVariable Long userId) {
+    public ResponseEntity<?> getPostsByUser(@PathVariable Long userId, WebRequest webRequest) {
         try {
-            logger.info("Fetching posts for user with id {}", userId);
+            ResourceVersion version = resourceVersions.postsByUser(userId, AuthenticatedUser.currentUserIdOrNull());
+            if (version != null && webRequest.checkNotModified(version.getETag())) {
+                return notModifiedPerViewer();
+            }
+            logger.debug("Fetching posts for user with id {}", userId);
             User user = userRepository.findById(userId)
                     .orElseThrow(() -> new RuntimeException("User not found with id " + userId));
             List<Post> posts = postRepository.findByUserOrderByCreatedAtDesc(user);
-            List<PostDTO> postDTOs = posts.stream()
-                    .map(PostDTO::fromEntity)
-                    .collect(Collectors.toList());
-            logger.info("Found {} posts for user {}", posts.size(), userId);
-            return ResponseEntity.ok(postDTOs);
+            List<PostDTO> postDTOs = feedService.toDTOs(posts, AuthenticatedUser.currentUserIdOrNull());
+            logger.debug("Found {} posts for user {}", posts.size(), userId);
+            return ResponseEntity.ok().varyBy(HttpHeaders.AUTHORIZATION).body(postDTOs);
         } catch (Exception e) {
             logger.error("Error fetching posts for user {}", userId, e);
             return ResponseEntity.status(500).body(new MessageResponse("Error fetching user posts: " + e.getMessage()));
@@ -88,7 +227,7 @@ public class PostController {
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<?> createPost(@Valid @RequestBody PostRequest postRequest) {
         try {
-            logger.info("Creating new post");
+            logger.debug("Creating new post");
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
             UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
 
@@ -99,8 +238,8 @@ public class PostController {
             post.setContent(postRequest.getContent());
             post.setUser(currentUser);
 
-            postRepository.save(post);
-            logger.info("Post created successfully by user {}", userDetails.getId());
+            timelineService.publish(post);
+            successLog.info("Post created successfully by user {}", userDetails.getId());
             return ResponseEntity.ok(new MessageResponse("Post created successfully!"));
         } catch (Exception e) {
             logger.error("Error creating post", e);
@@ -112,7 +251,7 @@ public class PostController {
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<?> updatePost(@PathVariable Long id, @Valid @RequestBody PostRequest postRequest) {
         try {
-            logger.info("Updating post with id {}", id);
+            logger.debug("Updating post with id {}", id);
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
             UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
 
@@ -125,10 +264,21 @@ public class PostController {
                 return ResponseEntity.badRequest().body(new MessageResponse("Not authorized to update this post"));
             }
 
+            // An edit based on an older read is rejected rather than merged; the save repeats the check atomically
+            if (postRequest.getVersion() != null && postRequest.getVersion() != post.getVersion()) {
+                throw new ObjectOptimisticLockingFailureException(Post.class, id);
+            }
+
             post.setContent(postRequest.getContent());
             postRepository.save(post);
+            postCache.invalidate(id);
             logger.info("Post {} updated successfully by user {}", id, userDetails.getId());
             return ResponseEntity.ok(new MessageResponse("Post updated successfully!"));
+        } catch (OptimisticLockingFailureException e) {
+            metricsRegistry.counter("conflicts.post.update").increment();
+            logger.info("Rejected stale update of post {}", id);
+            return ResponseEntity.status(409)
+                    .body(new MessageResponse("Post was modified by someone else; reload it and try again"));
         } catch (Exception e) {
             logger.error("Error updating post with id {}", id, e);
             return ResponseEntity.status(500).body(new MessageResponse("Error updating post: " + e.getMessage()));
@@ -137,9 +287,9 @@ public class PostController {
 
     @DeleteMapping("/{id}")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<?> deletePost(@PathVariable Long id) {
+    public ResponseEntity<?> deletePost(@PathVariable Long id, @RequestParam(defaultValue = "false") boolean async) {
         try {
-            logger.info("Deleting post with id {}", id);
+            logger.debug("Deleting post with id {}", id);
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
             UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
 
@@ -152,7 +302,13 @@ public class PostController {
                 return ResponseEntity.badRequest().body(new MessageResponse("Not authorized to delete this post"));
             }
 
-            postRepository.delete(post);
+            if (async) {
+                DeletionJobDTO job = postDeletionService.submit(id, userDetails.getId());
+                logger.info("Deletion of post {} queued as job {} by user {}", id, job.getJobId(), userDetails.getId());
+                return ResponseEntity.accepted().body(job);
+            }
+
+            postDeletionService.delete(id, userDetails.getId());
             logger.info("Post {} deleted successfully by user {}", id, userDetails.getId());
             return ResponseEntity.ok(new MessageResponse("Post deleted successfully!"));
         } catch (Exception e) {
@@ -161,39 +317,77 @@ public class PostController {
         }
     }
 
+    @GetMapping("/deletions/{jobId}")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<?> getDeletionJob(@PathVariable String jobId) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+
+        DeletionJobDTO job = postDeletionService.getJob(jobId, userDetails.getId());
+        if (job == null) {
+            return ResponseEntity.status(404).body(new MessageResponse("Deletion job not found: " + jobId));
+        }
+        return ResponseEntity.ok(job);
+    }
+
     @PostMapping("/{id}/like")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<?> likePost(@PathVariable Long id) {
         try {
-            logger.info("Processing like for post with id {}", id);
+            logger.debug("Processing like for post with id {}", id);
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
             UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
 
-            User currentUser = userRepository.findById(userDetails.getId())
-                    .orElseThrow(() -> new RuntimeException("User not found"));
+            boolean liked = likeService.togglePostLike(id, userDetails.getId()).isLiked();
+            successLog.info("User {} {} post {}", userDetails.getId(), liked ? "liked" : "unliked", id);
 
-            Post post = postRepository.findById(id)
-                    .orElseThrow(() -> new RuntimeException("Post not found with id " + id));
-
-            List<User> likes = post.getLikes();
-            boolean wasLiked = likes.contains(currentUser);
-
-            if (wasLiked) {
-                likes.remove(currentUser);
-                logger.info("User {} unliked post {}", userDetails.getId(), id);
-            } else {
-                likes.add(currentUser);
-                logger.info("User {} liked post {}", userDetails.getId(), id);
-            }
+            String message = liked ? "Post liked successfully!" : "Post unliked successfully!";
+            return ResponseEntity.ok(new MessageResponse(message));
+        } catch (Exception e) {
+            logger.error("Error processing like for post with id {}", id, e);
+            return ResponseEntity.status(500).body(new MessageResponse("Error processing like: " + e.getMessage()));
+        }
+    }
 
-            post.setLikes(likes);
-            postRepository.save(post);
+    @PutMapping("/{id}/like")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<?> addLike(@PathVariable Long id) {
+        try {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
 
-            String message = wasLiked ? "Post unliked successfully!" : "Post liked successfully!";
-            return ResponseEntity.ok(new MessageResponse(message));
+            LikeResponse response = likeService.likePost(id, userDetails.getId());
+            logger.debug("User {} liked post {}", userDetails.getId(), id);
+            return ResponseEntity.ok(response);
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(404).body(new MessageResponse(e.getMessage()));
         } catch (Exception e) {
             logger.error("Error processing like for post with id {}", id, e);
             return ResponseEntity.status(500).body(new MessageResponse("Error processing like: " + e.getMessage()));
         }
     }
+
+    @DeleteMapping("/{id}/like")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<?> removeLike(@PathVariable Long id) {
+        try {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+
+            LikeResponse response = likeService.unlikePost(id, userDetails.getId());
+            logger.debug("User {} unliked post {}", userDetails.getId(), id);
+            return ResponseEntity.ok(response);
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(404).body(new MessageResponse(e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error processing unlike for post with id {}", id, e);
+            return ResponseEntity.status(500).body(new MessageResponse("Error processing unlike: " + e.getMessage()));
+        }
+    }
+
+    // Viewer-specific responses (likedByCurrentUser, viewer in the ETag) vary by token, and so must their 304s,
+    // or a shared cache could hand one viewer's copy to another
+    private static <T> ResponseEntity<T> notModifiedPerViewer() {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).varyBy(HttpHeaders.AUTHORIZATION).build();
+    }
 }
\ No newline at end of file
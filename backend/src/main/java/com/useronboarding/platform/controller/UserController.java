@@ -1,45 +1,97 @@
 package com.useronboarding.platform.controller;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import jakarta.validation.Valid;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import com.useronboarding.platform.dto.UserSummaryDTO;
+import com.useronboarding.platform.metrics.MetricsRegistry;
 import com.useronboarding.platform.model.User;
+import com.useronboarding.platform.payload.request.BulkSignupRequest;
 import com.useronboarding.platform.payload.request.ProfileUpdateRequest;
+import com.useronboarding.platform.payload.response.BulkImportResponse;
 import com.useronboarding.platform.payload.response.MessageResponse;
 import com.useronboarding.platform.repository.UserRepository;
 import com.useronboarding.platform.security.services.UserDetailsImpl;
+import com.useronboarding.platform.service.EntityLoaders;
+import com.useronboarding.platform.service.FollowService;
+import com.useronboarding.platform.service.ResourceVersion;
+import com.useronboarding.platform.service.ResourceVersions;
+import com.useronboarding.platform.service.UserImportService;
+import com.useronboarding.platform.service.UserProfileCache;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
 @RequestMapping("/api/users")
 public class UserController {
+    private static final Logger logger = LoggerFactory.getLogger(UserController.class);
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private UserProfileCache userProfileCache;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    @Autowired
+    private FollowService followService;
+
+    @Autowired
+    private EntityLoaders entityLoaders;
+
+    @Autowired
+    private MetricsRegistry metricsRegistry;
+
+    // Summaries for many users at once, e.g. ?ids=3,1,2, in that order; unknown ids are left out
+    @GetMapping(params = "ids")
+    public ResponseEntity<?> getUsersByIds(@RequestParam String ids) {
+        List<Long> userIds;
+        try {
+            userIds = entityLoaders.parseIds(ids);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+
+        List<UserSummaryDTO> users = new ArrayList<>(userIds.size());
+        for (User user : entityLoaders.loadUsers(userIds)) {
+            users.add(UserSummaryDTO.fromUser(user));
+        }
+        return ResponseEntity.ok(users);
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<?> getUserProfile(@PathVariable Long id) {
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("User not found with id " + id));
+    public ResponseEntity<?> getUserProfile(@PathVariable Long id, WebRequest webRequest) {
+        ResourceVersion version = resourceVersions.profile(id);
+        if (version != null && webRequest.checkNotModified(version.getETag(), version.getLastModified())) {
+            return null;
+        }
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("id", user.getId());
-        response.put("username", user.getUsername());
-        response.put("email", user.getEmail());
-        response.put("bio", user.getBio());
-        response.put("profilePicture", user.getProfilePicture());
-        response.put("joinDate", user.getJoinDate());
+        Map<String, Object> profile = userProfileCache.get(id);
+        if (profile == null) {
+            throw new RuntimeException("User not found with id " + id);
+        }
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(profile);
     }
 
     @PutMapping("/profile")
@@ -48,20 +100,77 @@ public class UserController {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
 
-        User user = userRepository.findById(userDetails.getId())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        try {
+            User user = userRepository.findById(userDetails.getId())
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+
+            if (profileUpdateRequest.getVersion() != null && profileUpdateRequest.getVersion() != user.getVersion()) {
+                throw new ObjectOptimisticLockingFailureException(User.class, user.getId());
+            }
+
+            if (profileUpdateRequest.getBio() != null) {
+                user.setBio(profileUpdateRequest.getBio());
+            }
 
-        if (profileUpdateRequest.getBio() != null) {
-            user.setBio(profileUpdateRequest.getBio());
+            if (profileUpdateRequest.getProfilePicture() != null) {
+                user.setProfilePicture(profileUpdateRequest.getProfilePicture());
+            }
+
+            userRepository.save(user);
+            userProfileCache.invalidate(user.getId());
+
+            return ResponseEntity.ok(new MessageResponse("Profile updated successfully!"));
+        } catch (OptimisticLockingFailureException e) {
+            metricsRegistry.counter("conflicts.profile.update").increment();
+            logger.info("Rejected stale update of profile {}", userDetails.getId());
+            return ResponseEntity.status(409)
+                    .body(new MessageResponse("Profile was modified by someone else; reload it and try again"));
         }
+    }
+
+    @PostMapping("/import")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> importUsers(@Valid @RequestBody BulkSignupRequest bulkSignupRequest) {
+        BulkImportResponse response = userImportService.importUsers(bulkSignupRequest.getUsers());
+        return ResponseEntity.ok(response);
+    }
 
-        if (profileUpdateRequest.getProfilePicture() != null) {
-            user.setProfilePicture(profileUpdateRequest.getProfilePicture());
+    @PostMapping("/{id}/follow")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<?> follow(@PathVariable Long id) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+
+        try {
+            return ResponseEntity.ok(followService.follow(userDetails.getId(), id));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
         }
+    }
+
+    @DeleteMapping("/{id}/follow")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<?> unfollow(@PathVariable Long id) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
 
-        userRepository.save(user);
+        return ResponseEntity.ok(followService.unfollow(userDetails.getId(), id));
+    }
+
+    @GetMapping("/{id}/followers")
+    public ResponseEntity<List<UserSummaryDTO>> getFollowers(
+            @PathVariable Long id,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(followService.findFollowers(id, after, limit));
+    }
 
-        return ResponseEntity.ok(new MessageResponse("Profile updated successfully!"));
+    @GetMapping("/{id}/following")
+    public ResponseEntity<List<UserSummaryDTO>> getFollowing(
+            @PathVariable Long id,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(followService.findFollowing(id, after, limit));
     }
 
     @GetMapping("/me")
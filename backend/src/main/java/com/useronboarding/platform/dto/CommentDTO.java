@@ -0,0 +1,50 @@
+package com.useronboarding.platform.dto;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import com.useronboarding.platform.model.Comment;
+
+import lombok.Data;
+
+@Data
+public class CommentDTO {
+    private Long id;
+    private String content;
+    private UserSummaryDTO user;
+    private Date createdAt;
+    private Long parentId;
+    private long likeCount;
+    private long replyCount;
+    private boolean likedByCurrentUser;
+    private long version;
+    private List<CommentDTO> replies = new ArrayList<>();
+
+    public static CommentDTO fromEntity(Comment comment, boolean likedByCurrentUser) {
+        CommentDTO dto = new CommentDTO();
+        dto.setId(comment.getId());
+        dto.setContent(comment.getContent());
+        dto.setCreatedAt(comment.getCreatedAt());
+
+        if (comment.getUser() != null) {
+            dto.setUser(UserSummaryDTO.fromUser(comment.getUser()));
+        }
+
+        if (comment.getParentComment() != null) {
+            dto.setParentId(comment.getParentComment().getId());
+        }
+
+        dto.setLikeCount(comment.getLikeCount());
+        dto.setReplyCount(comment.getReplyCount());
+        dto.setLikedByCurrentUser(likedByCurrentUser);
+        dto.setVersion(comment.getVersion());
+
+        return dto;
+    }
+
+    // True when replies were cut off by the depth or per-level limit and must be paged in separately
+    public boolean isHasMoreReplies() {
+        return replyCount > replies.size();
+    }
+}
@@ -0,0 +1,22 @@
+package com.useronboarding.platform.dto;
+
+import java.util.Date;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeletionJobDTO {
+    private String jobId;
+    private Long postId;
+    private String status;
+    private long commentsDeleted;
+    private long likesDeleted;
+    private int batches;
+    private Date submittedAt;
+    private Date finishedAt;
+    private String error;
+}
@@ -1,8 +1,6 @@
 package com.useronboarding.platform.dto;
 
 import java.util.Date;
-import java.util.List;
-import java.util.stream.Collectors;
 
 import com.useronboarding.platform.model.Post;
 
@@ -14,10 +12,29 @@ public class PostDTO {
     private String content;
     private UserSummaryDTO user;
     private Date createdAt;
-    private List<UserSummaryDTO> likes;
-    private int commentCount;
+    private long likeCount;
+    private long commentCount;
+    private boolean likedByCurrentUser;
+    private long version;
+
+    public PostDTO copy() {
+        PostDTO dto = new PostDTO();
+        dto.setId(id);
+        dto.setContent(content);
+        dto.setUser(user);
+        dto.setCreatedAt(createdAt);
+        dto.setLikeCount(likeCount);
+        dto.setCommentCount(commentCount);
+        dto.setLikedByCurrentUser(likedByCurrentUser);
+        dto.setVersion(version);
+        return dto;
+    }
 
     public static PostDTO fromEntity(Post post) {
+        return fromEntity(post, false);
+    }
+
+    public static PostDTO fromEntity(Post post, boolean likedByCurrentUser) {
         PostDTO dto = new PostDTO();
         dto.setId(post.getId());
         dto.setContent(post.getContent());
@@ -27,16 +44,11 @@ public class PostDTO {
             dto.setUser(UserSummaryDTO.fromUser(post.getUser()));
         }
 
-        if (post.getLikes() != null) {
-            dto.setLikes(post.getLikes().stream()
-                    .map(UserSummaryDTO::fromUser)
-                    .collect(Collectors.toList()));
-        }
-
-        if (post.getComments() != null) {
-            dto.setCommentCount(post.getComments().size());
-        }
+        dto.setLikeCount(post.getLikeCount());
+        dto.setCommentCount(post.getCommentCount());
+        dto.setLikedByCurrentUser(likedByCurrentUser);
+        dto.setVersion(post.getVersion());
 
         return dto;
     }
-}
\ No newline at end of file
+}
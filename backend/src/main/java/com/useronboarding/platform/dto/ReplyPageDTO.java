@@ -0,0 +1,18 @@
+package com.useronboarding.platform.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReplyPageDTO {
+    private Long parentId;
+    private long replyCount;
+    private List<CommentDTO> replies;
+    private String nextCursor;
+    private boolean hasMore;
+}
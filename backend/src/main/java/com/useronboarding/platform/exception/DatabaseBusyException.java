@@ -0,0 +1,12 @@
+package com.useronboarding.platform.exception;
+
+import java.sql.SQLTransientConnectionException;
+
+// Thrown from DataSource.getConnection, so it reaches callers wrapped in Spring's data access exceptions
+public class DatabaseBusyException extends SQLTransientConnectionException {
+    private static final long serialVersionUID = 1L;
+
+    public DatabaseBusyException(String message) {
+        super(message);
+    }
+}
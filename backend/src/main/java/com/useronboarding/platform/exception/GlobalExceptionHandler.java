@@ -2,15 +2,22 @@ package com.useronboarding.platform.exception;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.AuthenticationException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
+import com.useronboarding.platform.metrics.MetricsRegistry;
 import com.useronboarding.platform.payload.response.MessageResponse;
 
 import java.util.Date;
@@ -20,6 +27,9 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+    @Autowired
+    private MetricsRegistry metricsRegistry;
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<MessageResponse> handleGlobalException(Exception ex, WebRequest request) {
         logger.error("Unhandled exception", ex);
@@ -36,6 +46,40 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return new ResponseEntity<>(errorDetails, HttpStatus.NOT_FOUND);
     }
 
+    // Non-commutative edits are never retried; the client reloads and decides
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<MessageResponse> handleOptimisticLockingFailureException(
+            OptimisticLockingFailureException ex, WebRequest request) {
+        logger.info("Concurrent modification: {}", ex.getMessage());
+        metricsRegistry.counter("conflicts.other").increment();
+        MessageResponse errorDetails = new MessageResponse(
+                "The resource was modified by someone else; reload it and try again");
+        return new ResponseEntity<>(errorDetails, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(PasswordHashingRejectedException.class)
+    public ResponseEntity<MessageResponse> handlePasswordHashingRejectedException(
+            PasswordHashingRejectedException ex, WebRequest request) {
+        logger.warn("Password hashing rejected: {}", ex.getMessage());
+        MessageResponse errorDetails = new MessageResponse(ex.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(errorDetails);
+    }
+
+    // Only the limiter's rejection becomes a 503; other connection failures stay server errors
+    @ExceptionHandler({ CannotCreateTransactionException.class, DataAccessResourceFailureException.class })
+    public ResponseEntity<MessageResponse> handleConnectionFailure(Exception ex, WebRequest request) {
+        if (!(NestedExceptionUtils.getMostSpecificCause(ex) instanceof DatabaseBusyException)) {
+            return handleGlobalException(ex, request);
+        }
+        logger.warn("Database busy: {}", ex.getMessage());
+        MessageResponse errorDetails = new MessageResponse("The service is busy; try again shortly");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(errorDetails);
+    }
+
     @ExceptionHandler(AuthenticationException.class)
     public ResponseEntity<MessageResponse> handleAuthenticationException(AuthenticationException ex,
             WebRequest request) {
@@ -0,0 +1,57 @@
+package com.useronboarding.platform.logging;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+
+// For failures a client can trigger at will, such as bad tokens: at most `limit` messages per
+// window reach the log. The rest are only counted, and the count rides along on the next message let through.
+public final class RateLimitedLogger {
+    private final Logger logger;
+    private final int limit;
+    private final long windowNanos;
+    private final AtomicLong windowStart;
+    private final AtomicInteger remaining;
+    private final LongAdder suppressed = new LongAdder();
+
+    public RateLimitedLogger(Logger logger, int limit, long window, TimeUnit unit) {
+        this.logger = logger;
+        this.limit = limit;
+        this.windowNanos = unit.toNanos(window);
+        this.windowStart = new AtomicLong(System.nanoTime());
+        this.remaining = new AtomicInteger(limit);
+    }
+
+    public void warn(String format, Object arg) {
+        if (!logger.isWarnEnabled()) {
+            return;
+        }
+        if (!acquire()) {
+            suppressed.increment();
+            return;
+        }
+        long dropped = suppressed.sumThenReset();
+        if (dropped > 0) {
+            logger.warn(format + " ({} similar messages suppressed)", arg, dropped);
+        } else {
+            logger.warn(format, arg);
+        }
+    }
+
+    public long getSuppressed() {
+        return suppressed.sum();
+    }
+
+    private boolean acquire() {
+        long now = System.nanoTime();
+        long start = windowStart.get();
+        if (now - start >= windowNanos && windowStart.compareAndSet(start, now)) {
+            remaining.set(limit);
+        }
+        // Checked before decrementing so a flood cannot wind the counter down past zero
+        return remaining.get() > 0 && remaining.getAndDecrement() > 0;
+    }
+}
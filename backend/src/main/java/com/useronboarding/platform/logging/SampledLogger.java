@@ -0,0 +1,55 @@
+package com.useronboarding.platform.logging;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.Logger;
+
+// For success messages on hot paths: every call is logged at DEBUG, but at INFO only about one
+// call in `rate` gets through. The random draw needs no shared counter, so sampling never contends.
+public final class SampledLogger {
+    public static final int DEFAULT_RATE = 100;
+
+    private final Logger logger;
+    private final int rate;
+
+    private SampledLogger(Logger logger, int rate) {
+        this.logger = logger;
+        this.rate = Math.max(1, rate);
+    }
+
+    public static SampledLogger of(Logger logger) {
+        return new SampledLogger(logger, DEFAULT_RATE);
+    }
+
+    public static SampledLogger of(Logger logger, int rate) {
+        return new SampledLogger(logger, rate);
+    }
+
+    public void info(String format, Object arg) {
+        if (logger.isDebugEnabled()) {
+            logger.debug(format, arg);
+        } else if (sampled()) {
+            logger.info(format, arg);
+        }
+    }
+
+    public void info(String format, Object arg1, Object arg2) {
+        if (logger.isDebugEnabled()) {
+            logger.debug(format, arg1, arg2);
+        } else if (sampled()) {
+            logger.info(format, arg1, arg2);
+        }
+    }
+
+    public void info(String format, Object... args) {
+        if (logger.isDebugEnabled()) {
+            logger.debug(format, args);
+        } else if (sampled()) {
+            logger.info(format, args);
+        }
+    }
+
+    private boolean sampled() {
+        return logger.isInfoEnabled() && (rate == 1 || ThreadLocalRandom.current().nextInt(rate) == 0);
+    }
+}
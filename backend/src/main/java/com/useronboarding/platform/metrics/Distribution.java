@@ -0,0 +1,55 @@
+package com.useronboarding.platform.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Timer's bucketing for plain counts (statements or entity loads per request). Values below
+// eight are exact, larger ones keep the same ~25% bound.
+public class Distribution {
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+    private final AtomicLongArray buckets = new AtomicLongArray(64 * 4);
+
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        count.increment();
+        total.add(value);
+        buckets.incrementAndGet(Timer.bucketOf(value));
+        long current;
+        while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+            // retry until this sample is no longer the maximum
+        }
+    }
+
+    public DistributionSnapshot snapshot() {
+        long[] counts = new long[buckets.length()];
+        long samples = 0;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = buckets.get(i);
+            samples += counts[i];
+        }
+        long recorded = count.sum();
+        double mean = recorded == 0 ? 0 : total.sum() / (double) recorded;
+        return new DistributionSnapshot(recorded, mean, max.get(), percentile(counts, samples, 0.50),
+                percentile(counts, samples, 0.90), percentile(counts, samples, 0.99));
+    }
+
+    private static long percentile(long[] counts, long samples, double quantile) {
+        if (samples == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(quantile * samples);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Timer.upperBound(i);
+            }
+        }
+        return Timer.upperBound(counts.length - 1);
+    }
+}
@@ -0,0 +1,28 @@
+package com.useronboarding.platform.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Everything recorded for one route ("GET /api/posts/{id}")
+public class EndpointMetrics {
+    final Timer latency = new Timer();
+    final Timer sqlTime = new Timer();
+    final Distribution statements = new Distribution();
+    final Distribution entityLoads = new Distribution();
+    final LongAdder serverErrors = new LongAdder();
+    final LongAdder suspectedNPlusOne = new LongAdder();
+    final AtomicLong lastWarningMillis = new AtomicLong();
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("latency", latency.snapshot());
+        snapshot.put("sqlTime", sqlTime.snapshot());
+        snapshot.put("statementsPerRequest", statements.snapshot());
+        snapshot.put("entityLoadsPerRequest", entityLoads.snapshot());
+        snapshot.put("serverErrors", serverErrors.sum());
+        snapshot.put("suspectedNPlusOne", suspectedNPlusOne.sum());
+        return snapshot;
+    }
+}
@@ -0,0 +1,39 @@
+package com.useronboarding.platform.metrics;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+// Counts every entity Hibernate materializes, including ones pulled in by eager associations,
+// which statement counts alone would hide behind a single join.
+@Component
+public class EntityLoadCounter implements PostLoadEventListener {
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private RequestMetrics requestMetrics;
+
+    @PostConstruct
+    public void register() {
+        if (!requestMetrics.isEnabled()) {
+            return;
+        }
+        entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class)
+                .appendListeners(EventType.POST_LOAD, this);
+    }
+
+    @Override
+    public void onPostLoad(PostLoadEvent event) {
+        requestMetrics.recordEntityLoad(event.getEntity().getClass());
+    }
+}
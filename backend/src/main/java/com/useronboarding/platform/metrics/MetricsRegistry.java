@@ -0,0 +1,59 @@
+package com.useronboarding.platform.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import com.useronboarding.platform.cache.CacheStats;
+import com.useronboarding.platform.cache.LocalCache;
+import com.useronboarding.platform.cache.TieredCache;
+
+@Component
+public class MetricsRegistry {
+    private final Map<String, Supplier<CacheStats>> caches = new ConcurrentSkipListMap<>();
+    private final Map<String, Timer> timers = new ConcurrentSkipListMap<>();
+    private final Map<String, LongAdder> counters = new ConcurrentSkipListMap<>();
+
+    public void registerCache(String name, LocalCache<?, ?> cache) {
+        caches.put(name, cache::stats);
+    }
+
+    // Reports the combined view plus each tier on its own
+    public void registerCache(String name, TieredCache<?, ?> cache) {
+        caches.put(name, cache::stats);
+        caches.put(name + ".local", cache.getLocal()::stats);
+        if (cache.hasSharedTier()) {
+            caches.put(name + ".shared", cache::sharedStats);
+        }
+    }
+
+    public Timer timer(String name) {
+        return timers.computeIfAbsent(name, key -> new Timer());
+    }
+
+    public LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, key -> new LongAdder());
+    }
+
+    public Map<String, CacheStats> cacheStats() {
+        Map<String, CacheStats> stats = new LinkedHashMap<>();
+        caches.forEach((name, cache) -> stats.put(name, cache.get()));
+        return stats;
+    }
+
+    public Map<String, TimerSnapshot> timerSnapshots() {
+        Map<String, TimerSnapshot> snapshots = new LinkedHashMap<>();
+        timers.forEach((name, timer) -> snapshots.put(name, timer.snapshot()));
+        return snapshots;
+    }
+
+    public Map<String, Long> counterValues() {
+        Map<String, Long> values = new LinkedHashMap<>();
+        counters.forEach((name, counter) -> values.put(name, counter.sum()));
+        return values;
+    }
+}
@@ -0,0 +1,166 @@
+package com.useronboarding.platform.metrics;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import jakarta.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// Per-request accounting of JDBC statements, SQL time and entity loads, folded into per-route
+// aggregates when the request ends. Request state lives in a thread local, so recording a
+// statement is a field increment. Streaming bodies are re-attached on the thread that writes them;
+// other work handed to other threads is only counted globally.
+@Component
+public class RequestMetrics {
+    private static final Logger logger = LoggerFactory.getLogger(RequestMetrics.class);
+    private static final long WARNING_INTERVAL_MS = TimeUnit.MINUTES.toMillis(1);
+
+    @Value("${app.instrumentation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.instrumentation.sql.warn-statements:25}")
+    private int warnStatements;
+
+    @Value("${app.instrumentation.sql.warn-repeats:10}")
+    private int warnRepeats;
+
+    @Autowired
+    private MetricsRegistry metricsRegistry;
+
+    private final ThreadLocal<RequestStats> current = new ThreadLocal<>();
+    private final Map<String, EndpointMetrics> endpoints = new ConcurrentSkipListMap<>();
+    private final Map<String, LongAdder> entityLoads = new ConcurrentHashMap<>();
+    private Timer statementTimer;
+
+    @PostConstruct
+    public void init() {
+        statementTimer = metricsRegistry.timer("sql.statement");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public RequestStats begin() {
+        RequestStats stats = new RequestStats();
+        current.set(stats);
+        return stats;
+    }
+
+    // Carries a request's stats onto the thread that finishes it, such as a streaming body's writer
+    public void attach(RequestStats stats) {
+        current.set(stats);
+    }
+
+    // Detaches the stats from this thread; end() may run later on another thread for async requests
+    public void detach() {
+        current.remove();
+    }
+
+    public void end(RequestStats stats, String endpoint, int status, long elapsedNanos) {
+        EndpointMetrics metrics = endpoints.computeIfAbsent(endpoint, key -> new EndpointMetrics());
+        metrics.latency.record(elapsedNanos);
+        metrics.sqlTime.record(stats.sqlNanos);
+        metrics.statements.record(stats.statements);
+        metrics.entityLoads.record(stats.entityLoads);
+        if (status >= 500) {
+            metrics.serverErrors.increment();
+        }
+
+        String repeated = stats.mostRepeated(warnRepeats);
+        if (stats.statements > warnStatements || repeated != null) {
+            metrics.suspectedNPlusOne.increment();
+            long now = System.currentTimeMillis();
+            long last = metrics.lastWarningMillis.get();
+            // At most one warning per route per interval; the counter keeps the full tally
+            if (now - last >= WARNING_INTERVAL_MS && metrics.lastWarningMillis.compareAndSet(last, now)) {
+                logger.warn("Possible N+1 queries in {}: {} statements, {} entity loads{}", endpoint,
+                        stats.statements, stats.entityLoads,
+                        repeated == null ? "" : "; repeated: " + repeated);
+            }
+        }
+    }
+
+    public void recordStatement(String sql, long nanos) {
+        statementTimer.record(nanos);
+        RequestStats stats = current.get();
+        if (stats != null) {
+            stats.statements++;
+            stats.sqlNanos += nanos;
+            stats.countRepeat(sql);
+        }
+    }
+
+    public void recordEntityLoad(Class<?> entityType) {
+        entityLoads.computeIfAbsent(entityType.getSimpleName(), key -> new LongAdder()).increment();
+        RequestStats stats = current.get();
+        if (stats != null) {
+            stats.entityLoads++;
+        }
+    }
+
+    public Map<String, Map<String, Object>> endpointSnapshots() {
+        Map<String, Map<String, Object>> snapshots = new LinkedHashMap<>();
+        endpoints.forEach((name, metrics) -> snapshots.put(name, metrics.snapshot()));
+        return snapshots;
+    }
+
+    public Map<String, Long> entityLoadCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        entityLoads.forEach((name, count) -> counts.put(name, count.sum()));
+        return counts;
+    }
+
+    public static final class RequestStats {
+        private final long startNanos = System.nanoTime();
+        private int statements;
+        private long sqlNanos;
+        private int entityLoads;
+        private Map<String, Integer> repeats;
+
+        public long getStartNanos() {
+            return startNanos;
+        }
+
+        public int getStatements() {
+            return statements;
+        }
+
+        // Allocated on the first statement, so requests that never touch the database pay nothing
+        private void countRepeat(String sql) {
+            if (sql == null) {
+                return;
+            }
+            if (repeats == null) {
+                repeats = new HashMap<>();
+            }
+            repeats.merge(sql, 1, Integer::sum);
+        }
+
+        private String mostRepeated(int threshold) {
+            if (repeats == null) {
+                return null;
+            }
+            String worst = null;
+            int worstCount = threshold - 1;
+            for (Map.Entry<String, Integer> entry : repeats.entrySet()) {
+                if (entry.getValue() > worstCount) {
+                    worst = entry.getKey();
+                    worstCount = entry.getValue();
+                }
+            }
+            return worst == null ? null : worstCount + "x " + worst;
+        }
+    }
+}
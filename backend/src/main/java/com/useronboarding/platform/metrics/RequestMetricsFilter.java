@@ -0,0 +1,118 @@
+package com.useronboarding.platform.metrics;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.useronboarding.platform.metrics.RequestMetrics.RequestStats;
+
+// Outermost filter, so route latency includes authentication. Routes are keyed by their mapping
+// pattern rather than the raw URI, which keeps the number of series bounded.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private RequestMetrics requestMetrics;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !requestMetrics.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestStats stats = requestMetrics.begin();
+        // A streaming body runs on the async executor after this filter returns; attach the stats there too
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(RequestMetricsFilter.class.getName(),
+                new AttachingInterceptor(stats));
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            // Streaming bodies finish on another thread; record when the response completes
+            if (request.isAsyncStarted()) {
+                async = true;
+                request.getAsyncContext().addListener(new CompletionListener(stats, request, response));
+            }
+        } finally {
+            requestMetrics.detach();
+            if (!async) {
+                record(stats, request, response.getStatus());
+            }
+        }
+    }
+
+    private void record(RequestStats stats, HttpServletRequest request, int status) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String endpoint = request.getMethod() + " " + (pattern == null ? "(unmapped)" : pattern);
+        requestMetrics.end(stats, endpoint, status, System.nanoTime() - stats.getStartNanos());
+    }
+
+    private final class AttachingInterceptor implements CallableProcessingInterceptor {
+        private final RequestStats stats;
+
+        AttachingInterceptor(RequestStats stats) {
+            this.stats = stats;
+        }
+
+        @Override
+        public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+            requestMetrics.attach(stats);
+        }
+
+        @Override
+        public <T> void postProcess(NativeWebRequest request, Callable<T> task,
+                Object concurrentResult) {
+            requestMetrics.detach();
+        }
+    }
+
+    private final class CompletionListener implements AsyncListener {
+        private final RequestStats stats;
+        private final HttpServletRequest request;
+        private final HttpServletResponse response;
+
+        CompletionListener(RequestStats stats, HttpServletRequest request, HttpServletResponse response) {
+            this.stats = stats;
+            this.request = request;
+            this.response = response;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            record(stats, request, response.getStatus());
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            // onComplete follows
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            // onComplete follows
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // the listener is re-registered by the next dispatch if needed
+        }
+    }
+}
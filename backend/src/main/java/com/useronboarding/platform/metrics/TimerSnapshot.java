@@ -0,0 +1,43 @@
+package com.useronboarding.platform.metrics;
+
+public class TimerSnapshot {
+    private final long count;
+    private final double meanMs;
+    private final double maxMs;
+    private final double p50Ms;
+    private final double p90Ms;
+    private final double p99Ms;
+
+    public TimerSnapshot(long count, double meanMs, double maxMs, double p50Ms, double p90Ms, double p99Ms) {
+        this.count = count;
+        this.meanMs = meanMs;
+        this.maxMs = maxMs;
+        this.p50Ms = p50Ms;
+        this.p90Ms = p90Ms;
+        this.p99Ms = p99Ms;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMeanMs() {
+        return meanMs;
+    }
+
+    public double getMaxMs() {
+        return maxMs;
+    }
+
+    public double getP50Ms() {
+        return p50Ms;
+    }
+
+    public double getP90Ms() {
+        return p90Ms;
+    }
+
+    public double getP99Ms() {
+        return p99Ms;
+    }
+}
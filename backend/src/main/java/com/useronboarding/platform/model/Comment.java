@@ -16,7 +16,11 @@ import java.util.Date;
 import java.util.List;
 
 @Entity
-@Table(name = "comments")
+@Table(name = "comments", indexes = {
+        @Index(name = "idx_comments_parent_created_id", columnList = "parent_id, created_at, id"),
+        @Index(name = "idx_comments_path", columnList = "path"),
+        @Index(name = "idx_comments_post_depth", columnList = "post_id, depth")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -30,12 +34,17 @@ public class Comment {
     @Size(max = 300)
     private String content;
 
+    // Optimistic lock for edits; counter updates are atomic statements and do not bump it
+    @Version
+    @Column(nullable = false)
+    private long version;
+
     @ManyToOne(fetch = FetchType.EAGER)
     @JoinColumn(name = "user_id", nullable = false)
     @JsonIgnoreProperties({ "password", "email", "roles", "bio", "profilePicture", "joinDate" })
     private User user;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "post_id", nullable = false)
     @JsonIgnoreProperties({ "user", "comments", "likes" })
     private Post post;
@@ -43,17 +52,44 @@ public class Comment {
     @Temporal(TemporalType.TIMESTAMP)
     private Date createdAt = new Date();
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    // Bumped on edits and by every counter update; drives the ETag and Last-Modified validators
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "updated_at")
+    private Date updatedAt;
+
+    // Counters are only changed through atomic UPDATE statements in CommentRepository
+    @Column(name = "like_count", nullable = false, updatable = false)
+    private long likeCount = 0;
+
+    @Column(name = "reply_count", nullable = false, updatable = false)
+    private long replyCount = 0;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "parent_id")
     @JsonIgnoreProperties({ "parentComment", "replies", "post" })
     private Comment parentComment;
 
-    @OneToMany(mappedBy = "parentComment", cascade = CascadeType.ALL, orphanRemoval = true)
+    // Materialized path maintained by CommentService; see CommentPaths
+    @Column(name = "path", length = 512)
+    private String path;
+
+    @Column(name = "depth", nullable = false)
+    private int depth = 0;
+
+    // No cascade: subtrees are removed with set-based deletes in CommentService and PostDeletionService
+    @OneToMany(mappedBy = "parentComment")
     @JsonIgnoreProperties({ "parentComment", "post" })
     private List<Comment> replies = new ArrayList<>();
 
     @ManyToMany
-    @JoinTable(name = "comment_likes", joinColumns = @JoinColumn(name = "comment_id"), inverseJoinColumns = @JoinColumn(name = "user_id"))
+    @JoinTable(name = "comment_likes", joinColumns = @JoinColumn(name = "comment_id"), inverseJoinColumns = @JoinColumn(name = "user_id"),
+            uniqueConstraints = @UniqueConstraint(name = "uk_comment_likes_comment_user", columnNames = { "comment_id", "user_id" }))
     @JsonIgnoreProperties({ "password", "email", "roles", "bio", "profilePicture", "joinDate" })
     private List<User> likes = new ArrayList<>();
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        updatedAt = new Date();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,28 @@
+package com.useronboarding.platform.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+// Tombstone written in the same transaction that deletes a post. A deletion leaves nothing behind in
+// posts, so the all-posts validator reads the newest tombstone id instead of counting rows.
+@Entity
+@Table(name = "deleted_posts")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeletedPost {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "post_id", nullable = false)
+    private Long postId;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "deleted_at", nullable = false)
+    private Date deletedAt;
+}
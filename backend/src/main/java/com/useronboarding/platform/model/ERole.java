@@ -1,5 +1,6 @@
 package com.useronboarding.platform.model;
 
 public enum ERole {
-    ROLE_USER
+    ROLE_USER,
+    ROLE_ADMIN
 }
\ No newline at end of file
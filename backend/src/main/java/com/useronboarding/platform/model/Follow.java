@@ -0,0 +1,36 @@
+package com.useronboarding.platform.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+// Rows are written and removed through FollowRepository's native statements; the entity defines the table
+@Entity
+@Table(name = "follows", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_follows_follower_followee", columnNames = { "follower_id", "followee_id" })
+}, indexes = {
+        @Index(name = "idx_follows_followee_follower", columnList = "followee_id, follower_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Follow {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "follower_id", nullable = false)
+    private User follower;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "followee_id", nullable = false)
+    private User followee;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "created_at", nullable = false)
+    private Date createdAt = new Date();
+}
@@ -0,0 +1,36 @@
+package com.useronboarding.platform.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+// A post whose copies into followers' timelines are not all written yet. Inserted in the transaction
+// that creates the post and deleted once the last batch lands; delivered_through is the highest
+// follower id already served, so a retry resumes where the previous attempt stopped.
+@Entity
+@Table(name = "pending_fanouts")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PendingFanout {
+    @Id
+    @Column(name = "post_id")
+    private Long postId;
+
+    @Column(name = "author_id", nullable = false)
+    private Long authorId;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "created_at", nullable = false)
+    private Date createdAt;
+
+    @Column(name = "delivered_through", nullable = false)
+    private Long deliveredThrough;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "enqueued_at", nullable = false)
+    private Date enqueuedAt;
+}
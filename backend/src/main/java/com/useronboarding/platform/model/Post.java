@@ -16,7 +16,11 @@ import java.util.Date;
 import java.util.List;
 
 @Entity
-@Table(name = "posts")
+@Table(name = "posts", indexes = {
+        @Index(name = "idx_posts_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_posts_user_created_at_id", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_posts_updated_at", columnList = "updated_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -30,6 +34,11 @@ public class Post {
     @Size(max = 500)
     private String content;
 
+    // Optimistic lock for edits; counter updates are atomic statements and do not bump it
+    @Version
+    @Column(nullable = false)
+    private long version;
+
     @ManyToOne(fetch = FetchType.EAGER)
     @JoinColumn(name = "user_id", nullable = false)
     @JsonIgnoreProperties({ "password", "email", "roles", "bio", "profilePicture", "joinDate" })
@@ -38,12 +47,32 @@ public class Post {
     @Temporal(TemporalType.TIMESTAMP)
     private Date createdAt = new Date();
 
-    @OneToMany(mappedBy = "post", cascade = CascadeType.ALL, orphanRemoval = true)
+    // Bumped on edits and by every counter update; drives the ETag and Last-Modified validators
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "updated_at")
+    private Date updatedAt;
+
+    // Counters are only changed through atomic UPDATE statements in PostRepository
+    @Column(name = "like_count", nullable = false, updatable = false)
+    private long likeCount = 0;
+
+    @Column(name = "comment_count", nullable = false, updatable = false)
+    private long commentCount = 0;
+
+    // No cascade: PostDeletionService removes comments and likes in bounded batches
+    @OneToMany(mappedBy = "post")
     @JsonIgnoreProperties({ "post", "parentComment" })
     private List<Comment> comments = new ArrayList<>();
 
     @ManyToMany
-    @JoinTable(name = "post_likes", joinColumns = @JoinColumn(name = "post_id"), inverseJoinColumns = @JoinColumn(name = "user_id"))
+    @JoinTable(name = "post_likes", joinColumns = @JoinColumn(name = "post_id"), inverseJoinColumns = @JoinColumn(name = "user_id"),
+            uniqueConstraints = @UniqueConstraint(name = "uk_post_likes_post_user", columnNames = { "post_id", "user_id" }))
     @JsonIgnoreProperties({ "password", "email", "roles", "bio", "profilePicture", "joinDate" })
     private List<User> likes = new ArrayList<>();
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        updatedAt = new Date();
+    }
 }
\ No newline at end of file
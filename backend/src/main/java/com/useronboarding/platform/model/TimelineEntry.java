@@ -0,0 +1,43 @@
+package com.useronboarding.platform.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.Date;
+
+// One post in one user's precomputed home timeline. Written by TimelineService with batched JDBC;
+// created_at is copied from the post so a timeline page is a single range read on the user's index.
+@Entity
+@Table(name = "timeline_entries", indexes = {
+        @Index(name = "idx_timeline_user_created_post", columnList = "user_id, created_at, post_id"),
+        @Index(name = "idx_timeline_post", columnList = "post_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimelineEntry {
+    @EmbeddedId
+    private Key key;
+
+    @Column(name = "author_id", nullable = false)
+    private Long authorId;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "created_at", nullable = false)
+    private Date createdAt;
+
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        @Column(name = "user_id")
+        private Long userId;
+
+        @Column(name = "post_id")
+        private Long postId;
+    }
+}
@@ -11,6 +11,8 @@ import lombok.NoArgsConstructor;
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
+import com.useronboarding.platform.security.services.PrincipalCacheListener;
+import com.useronboarding.platform.service.UserProfileCacheListener;
 
 import java.util.Date;
 import java.util.HashSet;
@@ -20,11 +22,14 @@ import java.util.Set;
 @Table(name = "users", uniqueConstraints = {
         @UniqueConstraint(columnNames = "username"),
         @UniqueConstraint(columnNames = "email")
+}, indexes = {
+        @Index(name = "idx_users_updated_at", columnList = "updated_at")
 })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @JsonIdentityInfo(generator = ObjectIdGenerators.PropertyGenerator.class, property = "id")
+@EntityListeners({ PrincipalCacheListener.class, UserProfileCacheListener.class })
 public class User {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -53,7 +58,34 @@ public class User {
     @Temporal(TemporalType.TIMESTAMP)
     private Date joinDate = new Date();
 
+    // Drives the profile ETag and Last-Modified validators
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "updated_at")
+    private Date updatedAt;
+
+    // Bumped to revoke every token issued so far; changed only through UserRepository.incrementTokenVersion
+    @Column(name = "token_version", nullable = false, updatable = false)
+    private int tokenVersion = 0;
+
+    // Follow counters are only changed through atomic UPDATE statements in UserRepository
+    @Column(name = "follower_count", nullable = false, updatable = false)
+    private long followerCount = 0;
+
+    @Column(name = "following_count", nullable = false, updatable = false)
+    private long followingCount = 0;
+
     @ManyToMany(fetch = FetchType.EAGER)
     @JoinTable(name = "user_roles", joinColumns = @JoinColumn(name = "user_id"), inverseJoinColumns = @JoinColumn(name = "role_id"))
     private Set<Role> roles = new HashSet<>();
+
+    // Optimistic lock for profile edits and password upgrades
+    @Version
+    @Column(nullable = false)
+    private long version;
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        updatedAt = new Date();
+    }
 }
\ No newline at end of file
@@ -8,6 +8,9 @@ public class PostRequest {
     @Size(max = 500)
     private String content;
 
+    // Version the client last read; a mismatch is reported as a conflict instead of overwriting
+    private Long version;
+
     public String getContent() {
         return content;
     }
@@ -15,4 +18,12 @@ public class PostRequest {
     public void setContent(String content) {
         this.content = content;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
\ No newline at end of file
@@ -9,6 +9,9 @@ public class ProfileUpdateRequest {
     @Size(max = 255)
     private String profilePicture;
 
+    // Version the client last read; a mismatch is reported as a conflict instead of overwriting
+    private Long version;
+
     public String getBio() {
         return bio;
     }
@@ -24,4 +27,12 @@ public class ProfileUpdateRequest {
     public void setProfilePicture(String profilePicture) {
         this.profilePicture = profilePicture;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
\ No newline at end of file
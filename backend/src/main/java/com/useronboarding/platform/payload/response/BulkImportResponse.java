@@ -0,0 +1,39 @@
+package com.useronboarding.platform.payload.response;
+
+import java.util.List;
+
+public class BulkImportResponse {
+    private int requested;
+    private int created;
+    private List<String> skipped;
+
+    public BulkImportResponse(int requested, int created, List<String> skipped) {
+        this.requested = requested;
+        this.created = created;
+        this.skipped = skipped;
+    }
+
+    public int getRequested() {
+        return requested;
+    }
+
+    public void setRequested(int requested) {
+        this.requested = requested;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public void setCreated(int created) {
+        this.created = created;
+    }
+
+    public List<String> getSkipped() {
+        return skipped;
+    }
+
+    public void setSkipped(List<String> skipped) {
+        this.skipped = skipped;
+    }
+}
@@ -0,0 +1,37 @@
+package com.useronboarding.platform.payload.response;
+
+public class FollowResponse {
+    private Long userId;
+    private boolean following;
+    private long followerCount;
+
+    public FollowResponse(Long userId, boolean following, long followerCount) {
+        this.userId = userId;
+        this.following = following;
+        this.followerCount = followerCount;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public boolean isFollowing() {
+        return following;
+    }
+
+    public void setFollowing(boolean following) {
+        this.following = following;
+    }
+
+    public long getFollowerCount() {
+        return followerCount;
+    }
+
+    public void setFollowerCount(long followerCount) {
+        this.followerCount = followerCount;
+    }
+}
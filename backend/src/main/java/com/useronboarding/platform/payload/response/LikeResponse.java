@@ -0,0 +1,37 @@
+package com.useronboarding.platform.payload.response;
+
+public class LikeResponse {
+    private Long id;
+    private boolean liked;
+    private long likeCount;
+
+    public LikeResponse(Long id, boolean liked, long likeCount) {
+        this.id = id;
+        this.liked = liked;
+        this.likeCount = likeCount;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public boolean isLiked() {
+        return liked;
+    }
+
+    public void setLiked(boolean liked) {
+        this.liked = liked;
+    }
+
+    public long getLikeCount() {
+        return likeCount;
+    }
+
+    public void setLikeCount(long likeCount) {
+        this.likeCount = likeCount;
+    }
+}
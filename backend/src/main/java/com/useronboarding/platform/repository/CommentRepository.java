@@ -1,18 +1,123 @@
 package com.useronboarding.platform.repository;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.useronboarding.platform.model.Comment;
 import com.useronboarding.platform.model.Post;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+    String SELECT_VERSION_SUMMARY = "SELECT COUNT(c) AS count, MAX(c.updatedAt) AS lastModified, "
+            + "MAX(u.updatedAt) AS userLastModified, SUM(c.likeCount + c.replyCount) AS counterSum "
+            + "FROM Comment c JOIN c.user u ";
+
     List<Comment> findByPostOrderByCreatedAtDesc(Post post);
 
     List<Comment> findByParentCommentIsNullAndPostOrderByCreatedAtDesc(Post post);
 
     List<Comment> findByParentCommentOrderByCreatedAtAsc(Comment parentComment);
-}
\ No newline at end of file
+
+    @Query("SELECT c FROM Comment c JOIN FETCH c.user WHERE c.post.id = :postId AND c.parentComment IS NULL "
+            + "ORDER BY c.createdAt DESC, c.id DESC")
+    List<Comment> findTopLevelByPostId(@Param("postId") Long postId, Pageable pageable);
+
+    // At most :limit replies across all the parents, in one statement instead of one query per parent.
+    // Ranking by position within the parent first gives every parent its first reply before any gets a second.
+    @Query(value = "SELECT ranked.id FROM (SELECT c.id, c.created_at, ROW_NUMBER() OVER "
+            + "(PARTITION BY c.parent_id ORDER BY c.created_at, c.id) AS position "
+            + "FROM comments c WHERE c.parent_id IN (:parentIds)) ranked "
+            + "ORDER BY ranked.position, ranked.created_at, ranked.id LIMIT :limit", nativeQuery = true)
+    List<Long> findFirstReplyIds(@Param("parentIds") Collection<Long> parentIds, @Param("limit") int limit);
+
+    @Query("SELECT c FROM Comment c JOIN FETCH c.user WHERE c.id IN :ids ORDER BY c.createdAt, c.id")
+    List<Comment> findWithUserByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Served by idx_comments_parent_created_id as an index range scan
+    @Query("SELECT c FROM Comment c JOIN FETCH c.user WHERE c.parentComment.id = :parentId "
+            + "ORDER BY c.createdAt, c.id")
+    List<Comment> findRepliesFirstPage(@Param("parentId") Long parentId, Pageable pageable);
+
+    @Query("SELECT c FROM Comment c JOIN FETCH c.user WHERE c.parentComment.id = :parentId "
+            + "AND (c.createdAt > :createdAt OR (c.createdAt = :createdAt AND c.id > :id)) "
+            + "ORDER BY c.createdAt, c.id")
+    List<Comment> findRepliesAfter(@Param("parentId") Long parentId, @Param("createdAt") Date createdAt,
+            @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT c.replyCount FROM Comment c WHERE c.id = :id")
+    Optional<Long> findReplyCount(@Param("id") Long id);
+
+    @Query("SELECT c.id FROM Comment c JOIN c.likes u WHERE u.id = :userId AND c.id IN :commentIds")
+    List<Long> findLikedCommentIds(@Param("userId") Long userId, @Param("commentIds") Collection<Long> commentIds);
+
+    @Query("SELECT c.likeCount FROM Comment c WHERE c.id = :id")
+    Optional<Long> findLikeCount(@Param("id") Long id);
+
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO comment_likes (comment_id, user_id) VALUES (:commentId, :userId)", nativeQuery = true)
+    int insertLike(@Param("commentId") Long commentId, @Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = "DELETE FROM comment_likes WHERE comment_id = :commentId AND user_id = :userId", nativeQuery = true)
+    int deleteLike(@Param("commentId") Long commentId, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("UPDATE Comment c SET c.likeCount = c.likeCount + :delta, c.updatedAt = CURRENT_TIMESTAMP WHERE c.id = :id")
+    int adjustLikeCount(@Param("id") Long id, @Param("delta") long delta);
+
+    @Modifying
+    @Query("UPDATE Comment c SET c.replyCount = c.replyCount + :delta, c.updatedAt = CURRENT_TIMESTAMP WHERE c.id = :id")
+    int adjustReplyCount(@Param("id") Long id, @Param("delta") long delta);
+
+    // Subtree queries are prefix ranges on idx_comments_path; ordering by path yields pre-order
+    @Query("SELECT c.path FROM Comment c WHERE c.id = :id")
+    Optional<String> findPathById(@Param("id") Long id);
+
+    @Query("SELECT c FROM Comment c JOIN FETCH c.user WHERE c.path LIKE :prefix ORDER BY c.path")
+    List<Comment> findSubtree(@Param("prefix") String prefix, Pageable pageable);
+
+    @Query("SELECT COUNT(c) FROM Comment c WHERE c.path LIKE :prefix")
+    long countSubtree(@Param("prefix") String prefix);
+
+    @Modifying
+    @Query(value = "DELETE FROM comment_likes WHERE comment_id IN "
+            + "(SELECT id FROM comments WHERE path LIKE :prefix)", nativeQuery = true)
+    int deleteSubtreeLikes(@Param("prefix") String prefix);
+
+    // Foreign keys are checked row by row, so parent links inside the subtree are cut before the delete
+    @Modifying
+    @Query("UPDATE Comment c SET c.parentComment = NULL WHERE c.path LIKE :prefix")
+    int detachSubtree(@Param("prefix") String prefix);
+
+    @Modifying
+    @Query("DELETE FROM Comment c WHERE c.path LIKE :prefix")
+    int deleteSubtree(@Param("prefix") String prefix);
+
+    @Query(SELECT_VERSION_SUMMARY + "WHERE c.post.id = :postId")
+    VersionSummary findVersionSummaryByPostId(@Param("postId") Long postId);
+
+    @Query(SELECT_VERSION_SUMMARY + "WHERE c.parentComment.id = :parentId")
+    VersionSummary findVersionSummaryByParentId(@Param("parentId") Long parentId);
+
+    @Query(SELECT_VERSION_SUMMARY + "WHERE c.path LIKE :prefix")
+    VersionSummary findVersionSummaryBySubtree(@Param("prefix") String prefix);
+
+    // The derived table keeps MySQL from rejecting a subquery on the table being updated
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE comments SET "
+            + "like_count = (SELECT COUNT(*) FROM comment_likes cl WHERE cl.comment_id = comments.id), "
+            + "reply_count = (SELECT COUNT(*) FROM (SELECT parent_id FROM comments) r "
+            + "WHERE r.parent_id = comments.id)", nativeQuery = true)
+    int recountAll();
+}
@@ -0,0 +1,16 @@
+package com.useronboarding.platform.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.useronboarding.platform.model.DeletedPost;
+
+@Repository
+public interface DeletedPostRepository extends JpaRepository<DeletedPost, Long> {
+    // End of the primary key index, so the lookup costs the same however many posts were deleted
+    @Query("SELECT MAX(d.id) FROM DeletedPost d")
+    Optional<Long> findLastId();
+}
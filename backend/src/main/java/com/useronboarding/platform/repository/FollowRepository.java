@@ -0,0 +1,41 @@
+package com.useronboarding.platform.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.useronboarding.platform.model.Follow;
+import com.useronboarding.platform.model.User;
+
+@Repository
+public interface FollowRepository extends JpaRepository<Follow, Long> {
+    // The unique key makes a repeated follow a no-op; the returned row count tells whether it was new
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO follows (follower_id, followee_id, created_at) "
+            + "VALUES (:followerId, :followeeId, CURRENT_TIMESTAMP)", nativeQuery = true)
+    int insertFollow(@Param("followerId") Long followerId, @Param("followeeId") Long followeeId);
+
+    @Modifying
+    @Query(value = "DELETE FROM follows WHERE follower_id = :followerId AND followee_id = :followeeId", nativeQuery = true)
+    int deleteFollow(@Param("followerId") Long followerId, @Param("followeeId") Long followeeId);
+
+    // Keyset over follower ids, walked in batches by the timeline fan-out
+    @Query("SELECT f.follower.id FROM Follow f WHERE f.followee.id = :followeeId AND f.follower.id > :afterId "
+            + "ORDER BY f.follower.id")
+    List<Long> findFollowerIdsAfter(@Param("followeeId") Long followeeId, @Param("afterId") Long afterId, Pageable pageable);
+
+    // Authors too widely followed to fan out on write; their posts are merged into the home timeline on read
+    @Query("SELECT u.id FROM Follow f JOIN f.followee u WHERE f.follower.id = :followerId AND u.followerCount >= :threshold")
+    List<Long> findFolloweeIdsWithFollowersAtLeast(@Param("followerId") Long followerId, @Param("threshold") long threshold);
+
+    @Query("SELECT u FROM Follow f JOIN f.follower u WHERE f.followee.id = :userId AND u.id > :afterId ORDER BY u.id")
+    List<User> findFollowersAfter(@Param("userId") Long userId, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT u FROM Follow f JOIN f.followee u WHERE f.follower.id = :userId AND u.id > :afterId ORDER BY u.id")
+    List<User> findFollowingAfter(@Param("userId") Long userId, @Param("afterId") Long afterId, Pageable pageable);
+}
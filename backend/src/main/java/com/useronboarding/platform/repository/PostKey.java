@@ -0,0 +1,18 @@
+package com.useronboarding.platform.repository;
+
+import java.util.Date;
+
+// Keyset position and version columns of a post, without loading the entity
+public interface PostKey {
+    Long getId();
+
+    Date getCreatedAt();
+
+    Date getUpdatedAt();
+
+    long getLikeCount();
+
+    long getCommentCount();
+
+    Date getUserUpdatedAt();
+}
@@ -1,16 +1,100 @@
 package com.useronboarding.platform.repository;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.useronboarding.platform.model.Post;
 import com.useronboarding.platform.model.User;
 
 @Repository
 public interface PostRepository extends JpaRepository<Post, Long> {
+    String SELECT_POST_KEY = "SELECT p.id AS id, p.createdAt AS createdAt, p.updatedAt AS updatedAt, "
+            + "p.likeCount AS likeCount, p.commentCount AS commentCount, u.updatedAt AS userUpdatedAt "
+            + "FROM Post p JOIN p.user u ";
+
+    String SELECT_VERSION_SUMMARY = "SELECT COUNT(p) AS count, MAX(p.updatedAt) AS lastModified, "
+            + "MAX(u.updatedAt) AS userLastModified, SUM(p.likeCount + p.commentCount) AS counterSum "
+            + "FROM Post p JOIN p.user u ";
+
     List<Post> findByUserOrderByCreatedAtDesc(User user);
 
     List<Post> findAllByOrderByCreatedAtDesc();
-}
\ No newline at end of file
+
+    @Query(SELECT_POST_KEY + "ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostKey> findFeedKeysFirstPage(Pageable pageable);
+
+    @Query(SELECT_POST_KEY + "WHERE p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id) "
+            + "ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostKey> findFeedKeysAfter(@Param("createdAt") Date createdAt, @Param("id") Long id, Pageable pageable);
+
+    @Query(SELECT_POST_KEY + "WHERE p.id IN :ids")
+    List<PostKey> findKeysByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(SELECT_POST_KEY + "WHERE u.id IN :userIds ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostKey> findKeysByUserIdsFirstPage(@Param("userIds") Collection<Long> userIds, Pageable pageable);
+
+    @Query(SELECT_POST_KEY + "WHERE u.id IN :userIds "
+            + "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) "
+            + "ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostKey> findKeysByUserIdsAfter(@Param("userIds") Collection<Long> userIds, @Param("createdAt") Date createdAt,
+            @Param("id") Long id, Pageable pageable);
+
+    @Query(SELECT_POST_KEY + "WHERE p.id = :id")
+    Optional<PostKey> findKeyById(@Param("id") Long id);
+
+    @Query(SELECT_VERSION_SUMMARY + "WHERE u.id = :userId")
+    VersionSummary findVersionSummaryByUserId(@Param("userId") Long userId);
+
+    // Answered from the end of idx_posts_updated_at; every write to a post bumps updated_at
+    @Query("SELECT MAX(p.updatedAt) FROM Post p")
+    Optional<Date> findLastModified();
+
+    @Query("SELECT p FROM Post p JOIN FETCH p.user WHERE p.id IN :ids")
+    List<Post> findWithUserByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT p FROM Post p JOIN FETCH p.user WHERE p.id = :id")
+    Optional<Post> findWithUserById(@Param("id") Long id);
+
+    @Query("SELECT p.id FROM Post p JOIN p.likes u WHERE u.id = :userId AND p.id IN :postIds")
+    List<Long> findLikedPostIds(@Param("userId") Long userId, @Param("postIds") Collection<Long> postIds);
+
+    @Query("SELECT p.likeCount FROM Post p WHERE p.id = :id")
+    Optional<Long> findLikeCount(@Param("id") Long id);
+
+    // Like rows are written directly so the liker collection is never loaded; the unique key makes inserts idempotent
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO post_likes (post_id, user_id) VALUES (:postId, :userId)", nativeQuery = true)
+    int insertLike(@Param("postId") Long postId, @Param("userId") Long userId);
+
+    @Query(value = "SELECT COUNT(*) FROM post_likes WHERE post_id = :postId AND user_id = :userId", nativeQuery = true)
+    long countLike(@Param("postId") Long postId, @Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = "DELETE FROM post_likes WHERE post_id = :postId AND user_id = :userId", nativeQuery = true)
+    int deleteLike(@Param("postId") Long postId, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("UPDATE Post p SET p.likeCount = p.likeCount + :delta, p.updatedAt = CURRENT_TIMESTAMP WHERE p.id = :id")
+    int adjustLikeCount(@Param("id") Long id, @Param("delta") long delta);
+
+    @Modifying
+    @Query("UPDATE Post p SET p.commentCount = p.commentCount + :delta, p.updatedAt = CURRENT_TIMESTAMP WHERE p.id = :id")
+    int adjustCommentCount(@Param("id") Long id, @Param("delta") long delta);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE posts SET "
+            + "like_count = (SELECT COUNT(*) FROM post_likes pl WHERE pl.post_id = posts.id), "
+            + "comment_count = (SELECT COUNT(*) FROM comments c WHERE c.post_id = posts.id)", nativeQuery = true)
+    int recountAll();
+}
@@ -0,0 +1,16 @@
+package com.useronboarding.platform.repository;
+
+import java.util.Date;
+
+// What a profile response depends on: updated_at for edits, plus the follow counters, which change
+// without touching updated_at so that follows do not invalidate every page showing the user, and the
+// version, which a password rehash bumps without touching updated_at either
+public interface ProfileVersion {
+    Date getUpdatedAt();
+
+    long getVersion();
+
+    long getFollowerCount();
+
+    long getFollowingCount();
+}
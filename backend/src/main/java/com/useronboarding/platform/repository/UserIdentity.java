@@ -0,0 +1,8 @@
+package com.useronboarding.platform.repository;
+
+// The unique columns of an account, enough to tell which of them a signup collides with
+public interface UserIdentity {
+    String getUsername();
+
+    String getEmail();
+}
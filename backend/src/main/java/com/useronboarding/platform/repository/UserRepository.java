@@ -1,8 +1,14 @@
 package com.useronboarding.platform.repository;
 
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.useronboarding.platform.model.User;
@@ -14,4 +20,50 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Boolean existsByUsername(String username);
 
     Boolean existsByEmail(String email);
-}
\ No newline at end of file
+
+    List<User> findByIdIn(Collection<Long> ids);
+
+    // One indexed round trip for both unique keys; at most two accounts match
+    @Query("SELECT u.username AS username, u.email AS email FROM User u WHERE u.username = :username OR u.email = :email")
+    List<UserIdentity> findIdentities(@Param("username") String username, @Param("email") String email);
+
+    @Query("SELECT u.username FROM User u WHERE u.username IN :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("SELECT u.updatedAt FROM User u WHERE u.id = :id")
+    Optional<Date> findUpdatedAtById(@Param("id") Long id);
+
+    @Query("SELECT u.updatedAt AS updatedAt, u.version AS version, u.followerCount AS followerCount, "
+            + "u.followingCount AS followingCount FROM User u WHERE u.id = :id")
+    Optional<ProfileVersion> findProfileVersionById(@Param("id") Long id);
+
+    @Query("SELECT MAX(u.updatedAt) FROM User u")
+    Optional<Date> findLastModified();
+
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.id = :id")
+    Optional<Integer> findTokenVersionById(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password, u.version = u.version + 1 WHERE u.username = :username")
+    int updatePassword(@Param("username") String username, @Param("password") String password);
+
+    @Query("SELECT u.followerCount FROM User u WHERE u.id = :id")
+    Optional<Long> findFollowerCount(@Param("id") Long id);
+
+    // Counters leave updated_at alone: it versions every post and feed page showing the user, and only
+    // the profile displays these; ProfileVersion covers them there
+    @Modifying
+    @Query("UPDATE User u SET u.followerCount = u.followerCount + :delta WHERE u.id = :id")
+    int adjustFollowerCount(@Param("id") Long id, @Param("delta") long delta);
+
+    @Modifying
+    @Query("UPDATE User u SET u.followingCount = u.followingCount + :delta WHERE u.id = :id")
+    int adjustFollowingCount(@Param("id") Long id, @Param("delta") long delta);
+
+    @Modifying
+    @Query("UPDATE User u SET u.tokenVersion = u.tokenVersion + 1 WHERE u.id = :id")
+    int incrementTokenVersion(@Param("id") Long id);
+}
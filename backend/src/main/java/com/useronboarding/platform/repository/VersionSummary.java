@@ -0,0 +1,14 @@
+package com.useronboarding.platform.repository;
+
+import java.util.Date;
+
+// Aggregate version of a set of rows: any insert, delete, edit or counter change alters one of these
+public interface VersionSummary {
+    long getCount();
+
+    Date getLastModified();
+
+    Date getUserLastModified();
+
+    Long getCounterSum();
+}
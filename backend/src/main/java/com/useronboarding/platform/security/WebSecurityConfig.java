@@ -1,6 +1,7 @@
 package com.useronboarding.platform.security;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -19,8 +20,10 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.Arrays;
 
+import com.useronboarding.platform.metrics.MetricsRegistry;
 import com.useronboarding.platform.security.jwt.AuthEntryPointJwt;
 import com.useronboarding.platform.security.jwt.AuthTokenFilter;
+import com.useronboarding.platform.security.services.PrincipalCache;
 import com.useronboarding.platform.security.services.UserDetailsServiceImpl;
 
 @Configuration
@@ -32,6 +35,24 @@ public class WebSecurityConfig {
     @Autowired
     private AuthEntryPointJwt unauthorizedHandler;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private MetricsRegistry metricsRegistry;
+
+    @Value("${app.security.bcrypt.strength:10}")
+    private int bcryptStrength;
+
+    @Value("${app.security.hashing.pool-size:0}")
+    private int hashingPoolSize;
+
+    @Value("${app.security.hashing.queue-capacity:64}")
+    private int hashingQueueCapacity;
+
+    @Value("${app.security.hashing.timeout-ms:5000}")
+    private long hashingTimeoutMs;
+
     @Bean
     public AuthTokenFilter authenticationJwtTokenFilter() {
         return new AuthTokenFilter();
@@ -43,6 +64,9 @@ public class WebSecurityConfig {
 
         authProvider.setUserDetailsService(userDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setUserCache(principalCache);
+        // Hashes stored with a lower cost than app.security.bcrypt.strength are rehashed on the next login
+        authProvider.setUserDetailsPasswordService(userDetailsService);
 
         return authProvider;
     }
@@ -54,7 +78,9 @@ public class WebSecurityConfig {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        int poolSize = hashingPoolSize > 0 ? hashingPoolSize : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(bcryptStrength), poolSize,
+                hashingQueueCapacity, hashingTimeoutMs, metricsRegistry);
     }
 
     @Bean
@@ -1,6 +1,7 @@
 package com.useronboarding.platform.security.jwt;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -10,6 +11,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -17,8 +19,14 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.useronboarding.platform.logging.RateLimitedLogger;
+import com.useronboarding.platform.security.services.PrincipalCache;
+import com.useronboarding.platform.security.services.TokenVersionRegistry;
+import com.useronboarding.platform.security.services.UserDetailsImpl;
 import com.useronboarding.platform.security.services.UserDetailsServiceImpl;
 
+import io.jsonwebtoken.Claims;
+
 public class AuthTokenFilter extends OncePerRequestFilter {
     @Autowired
     private JwtUtils jwtUtils;
@@ -26,17 +34,28 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @Value("${app.jwt.principal-source:claims}")
+    private String principalSource;
+
     private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
 
+    // The request carries on unauthenticated, so a repeated failure needs no stack trace on every call
+    private static final RateLimitedLogger authenticationFailures = new RateLimitedLogger(logger, 1, 1, TimeUnit.SECONDS);
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
-
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            Claims claims = jwt != null ? jwtUtils.parseClaims(jwt) : null;
+            UserDetails userDetails = claims != null ? resolvePrincipal(claims) : null;
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                         userDetails,
                         null,
@@ -46,12 +65,33 @@ public class AuthTokenFilter extends OncePerRequestFilter {
                 SecurityContextHolder.getContext().setAuthentication(authentication);
             }
         } catch (Exception e) {
-            logger.error("Cannot set user authentication: {}", e);
+            authenticationFailures.warn("Cannot set user authentication: {}", e.toString());
+            logger.debug("Authentication failure detail", e);
         }
 
         filterChain.doFilter(request, response);
     }
 
+    // In "claims" mode the principal comes straight from the verified token; only the
+    // revocation check runs, and that is answered from TokenVersionRegistry's memory.
+    private UserDetailsImpl resolvePrincipal(Claims claims) {
+        UserDetailsImpl userDetails = "claims".equals(principalSource) ? jwtUtils.buildPrincipal(claims) : null;
+        if (userDetails == null) {
+            String username = claims.getSubject();
+            userDetails = (UserDetailsImpl) principalCache.getUserFromCache(username);
+            if (userDetails == null) {
+                userDetails = (UserDetailsImpl) userDetailsService.loadUserByUsername(username);
+                principalCache.putUserInCache(userDetails);
+            }
+        }
+
+        if (!tokenVersionRegistry.isCurrent(userDetails.getId(), jwtUtils.getTokenVersion(claims))) {
+            logger.debug("Rejected revoked token for user {}", userDetails.getUsername());
+            return null;
+        }
+        return userDetails;
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
 
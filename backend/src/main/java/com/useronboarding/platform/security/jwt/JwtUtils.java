@@ -1,14 +1,27 @@
 package com.useronboarding.platform.security.jwt;
 
 import java.security.Key;
+import java.time.Duration;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import jakarta.annotation.PostConstruct;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
+import com.useronboarding.platform.cache.LocalCache;
+import com.useronboarding.platform.logging.RateLimitedLogger;
+import com.useronboarding.platform.metrics.MetricsRegistry;
 import com.useronboarding.platform.security.services.UserDetailsImpl;
 
 import io.jsonwebtoken.*;
@@ -19,46 +32,118 @@ import io.jsonwebtoken.security.Keys;
 public class JwtUtils {
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
 
+    // Anyone can send a bad token, so failures are warnings and a flood of them costs one line per second at most
+    private static final RateLimitedLogger rejectedTokens = new RateLimitedLogger(logger, 1, 1, TimeUnit.SECONDS);
+
+    private static final String CLAIM_USER_ID = "uid";
+    private static final String CLAIM_ROLES = "roles";
+    private static final String CLAIM_TOKEN_VERSION = "ver";
+
     @Value("${app.jwt.secret}")
     private String jwtSecret;
 
     @Value("${app.jwt.expiration-ms}")
     private int jwtExpirationMs;
 
+    @Value("${app.jwt.verified-cache.max-size:10000}")
+    private int verifiedCacheSize;
+
+    @Autowired
+    private MetricsRegistry metricsRegistry;
+
+    private Key key;
+    private JwtParser parser;
+    private LocalCache<String, Claims> verifiedTokens;
+    private LongAdder rejections;
+
+    // The key and parser are immutable and thread-safe, so they are built once
+    @PostConstruct
+    public void init() {
+        key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        parser = Jwts.parserBuilder().setSigningKey(key).build();
+        verifiedTokens = new LocalCache<>(verifiedCacheSize, null);
+        metricsRegistry.registerCache("verifiedTokens", verifiedTokens);
+        rejections = metricsRegistry.counter("auth.tokens.rejected");
+    }
+
     public String generateJwtToken(Authentication authentication) {
         UserDetailsImpl userPrincipal = (UserDetailsImpl) authentication.getPrincipal();
 
+        List<String> roles = userPrincipal.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toList());
+
         return Jwts.builder()
                 .setSubject((userPrincipal.getUsername()))
+                .claim(CLAIM_USER_ID, userPrincipal.getId())
+                .claim(CLAIM_ROLES, roles)
+                .claim(CLAIM_TOKEN_VERSION, userPrincipal.getTokenVersion())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(key(), SignatureAlgorithm.HS256)
+                .signWith(key, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    private Key key() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
-    }
-
-    public String getUserNameFromJwtToken(String token) {
-        return Jwts.parserBuilder().setSigningKey(key()).build()
-                .parseClaimsJws(token).getBody().getSubject();
-    }
+    // Verifies the signature and expiry once and returns the claims, or null when the token is invalid.
+    // A token that verified before is served from the cache until its own expiry, skipping the HMAC.
+    public Claims parseClaims(String authToken) {
+        Claims cached = verifiedTokens.get(authToken);
+        if (cached != null) {
+            return cached;
+        }
 
-    public boolean validateJwtToken(String authToken) {
         try {
-            Jwts.parserBuilder().setSigningKey(key()).build().parseClaimsJws(authToken);
-            return true;
+            Claims claims = parser.parseClaimsJws(authToken).getBody();
+            Date expiration = claims.getExpiration();
+            if (expiration != null) {
+                verifiedTokens.put(authToken, claims, expiration.getTime());
+            }
+            return claims;
         } catch (MalformedJwtException e) {
-            logger.error("Invalid JWT token: {}", e.getMessage());
+            reject("Invalid JWT token: {}", e);
         } catch (ExpiredJwtException e) {
-            logger.error("JWT token is expired: {}", e.getMessage());
+            reject("JWT token is expired: {}", e);
         } catch (UnsupportedJwtException e) {
-            logger.error("JWT token is unsupported: {}", e.getMessage());
+            reject("JWT token is unsupported: {}", e);
         } catch (IllegalArgumentException e) {
-            logger.error("JWT claims string is empty: {}", e.getMessage());
+            reject("JWT claims string is empty: {}", e);
+        } catch (JwtException e) {
+            reject("Invalid JWT signature: {}", e);
         }
 
-        return false;
+        return null;
+    }
+
+    private void reject(String format, Exception e) {
+        rejections.increment();
+        rejectedTokens.warn(format, e.getMessage());
+    }
+
+    // Tokens issued before id and roles were embedded return null and must be resolved from the database
+    public UserDetailsImpl buildPrincipal(Claims claims) {
+        Long userId = claims.get(CLAIM_USER_ID, Long.class);
+        List<?> roles = claims.get(CLAIM_ROLES, List.class);
+        if (userId == null || roles == null) {
+            return null;
+        }
+
+        List<GrantedAuthority> authorities = roles.stream()
+                .map(role -> new SimpleGrantedAuthority(role.toString()))
+                .collect(Collectors.toList());
+        return new UserDetailsImpl(userId, claims.getSubject(), null, null, authorities, getTokenVersion(claims));
+    }
+
+    public int getTokenVersion(Claims claims) {
+        Integer version = claims.get(CLAIM_TOKEN_VERSION, Integer.class);
+        return version == null ? 0 : version;
+    }
+
+    public String getUserNameFromJwtToken(String token) {
+        Claims claims = parseClaims(token);
+        return claims == null ? null : claims.getSubject();
+    }
+
+    public boolean validateJwtToken(String authToken) {
+        return parseClaims(authToken) != null;
     }
-}
\ No newline at end of file
+}
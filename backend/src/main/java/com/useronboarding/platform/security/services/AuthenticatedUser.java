@@ -0,0 +1,18 @@
+package com.useronboarding.platform.security.services;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+public final class AuthenticatedUser {
+    private AuthenticatedUser() {
+    }
+
+    // Anonymous requests carry a String principal, so this returns null rather than failing the cast
+    public static Long currentUserIdOrNull() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserDetailsImpl userDetails) {
+            return userDetails.getId();
+        }
+        return null;
+    }
+}
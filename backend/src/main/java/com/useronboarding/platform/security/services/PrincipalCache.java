@@ -0,0 +1,56 @@
+package com.useronboarding.platform.security.services;
+
+import java.time.Duration;
+
+import jakarta.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import com.useronboarding.platform.cache.LocalCache;
+import com.useronboarding.platform.metrics.MetricsRegistry;
+
+// Resolved principals keyed by username (the JWT subject), shared by the token filter and
+// DaoAuthenticationProvider. Entries must be invalidated whenever a user's roles or
+// account state change; PrincipalCacheListener does this for every User update.
+@Component
+public class PrincipalCache implements UserCache {
+    @Autowired
+    private MetricsRegistry metricsRegistry;
+
+    @Value("${app.security.principal-cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${app.security.principal-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private LocalCache<String, UserDetails> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = new LocalCache<>(maxSize, Duration.ofSeconds(ttlSeconds));
+        metricsRegistry.registerCache("principals", cache);
+    }
+
+    @Override
+    public UserDetails getUserFromCache(String username) {
+        return cache.get(username);
+    }
+
+    @Override
+    public void putUserInCache(UserDetails user) {
+        cache.put(user.getUsername(), user);
+    }
+
+    @Override
+    public void removeUserFromCache(String username) {
+        cache.invalidate(username);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+}
@@ -0,0 +1,21 @@
+package com.useronboarding.platform.security.services;
+
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.useronboarding.platform.model.User;
+
+// Created by Hibernate through Spring's bean container, like UserProfileCacheListener
+public class PrincipalCacheListener {
+    @Autowired
+    private ObjectProvider<PrincipalCache> principalCache;
+
+    @PostUpdate
+    @PostRemove
+    public void evict(User user) {
+        principalCache.getObject().removeUserFromCache(user.getUsername());
+    }
+}
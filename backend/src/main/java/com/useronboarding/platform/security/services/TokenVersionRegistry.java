@@ -0,0 +1,65 @@
+package com.useronboarding.platform.security.services;
+
+import java.time.Duration;
+
+import jakarta.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.useronboarding.platform.cache.LocalCache;
+import com.useronboarding.platform.metrics.MetricsRegistry;
+import com.useronboarding.platform.repository.UserRepository;
+
+// In-memory view of each user's current token version. A token whose "ver" claim is older
+// than this value has been revoked. Other instances pick up a bump within the cache TTL.
+@Component
+public class TokenVersionRegistry {
+    private static final int UNKNOWN_USER = -1;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private MetricsRegistry metricsRegistry;
+
+    @Value("${app.jwt.token-version-cache.max-size:100000}")
+    private int maxSize;
+
+    @Value("${app.jwt.token-version-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    private LocalCache<Long, Integer> versions;
+
+    @PostConstruct
+    public void init() {
+        versions = new LocalCache<>(maxSize, Duration.ofSeconds(ttlSeconds));
+        metricsRegistry.registerCache("tokenVersions", versions);
+    }
+
+    public boolean isCurrent(Long userId, int tokenVersion) {
+        int current = versions.get(userId,
+                id -> userRepository.findTokenVersionById(id).orElse(UNKNOWN_USER));
+        return current != UNKNOWN_USER && current == tokenVersion;
+    }
+
+    @Transactional
+    public void revokeAll(Long userId, String username) {
+        userRepository.incrementTokenVersion(userId);
+        // Evicting before commit would let a concurrent request re-cache the old version
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                versions.invalidate(userId);
+                principalCache.removeUserFromCache(username);
+            }
+        });
+    }
+}
@@ -2,6 +2,7 @@ package com.useronboarding.platform.security.services;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -9,12 +10,19 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.useronboarding.platform.model.User;
 import com.useronboarding.platform.repository.UserRepository;
+import com.useronboarding.platform.service.UserProfileCache;
 
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
     @Autowired
     UserRepository userRepository;
 
+    @Autowired
+    PrincipalCache principalCache;
+
+    @Autowired
+    UserProfileCache userProfileCache;
+
     @Override
     @Transactional
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
@@ -23,4 +31,17 @@ public class UserDetailsServiceImpl implements UserDetailsService {
 
         return UserDetailsImpl.build(user);
     }
+
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePassword(user.getUsername(), newPassword);
+        principalCache.removeUserFromCache(user.getUsername());
+
+        UserDetailsImpl current = (UserDetailsImpl) user;
+        // The bulk update bypasses the entity listeners, and the cached profile carries the old version
+        userProfileCache.invalidate(current.getId());
+        return new UserDetailsImpl(current.getId(), current.getUsername(), current.getEmail(), newPassword,
+                current.getAuthorities(), current.getTokenVersion());
+    }
 }
\ No newline at end of file
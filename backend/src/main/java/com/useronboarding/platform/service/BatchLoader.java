@@ -0,0 +1,79 @@
+package com.useronboarding.platform.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+// DataLoader-style batching: keys are queued as callers ask for them and resolved together on
+// dispatch, one batch query per `maxBatchSize` keys. Results, including misses, are memoized for the
+// loader's lifetime, so the same key is never fetched twice. Not thread-safe; one loader per request.
+public class BatchLoader<K, V> {
+    private final Function<List<K>, Map<K, V>> batchFunction;
+    private final int maxBatchSize;
+    private final Map<K, V> loaded = new HashMap<>();
+    private final Set<K> pending = new LinkedHashSet<>();
+
+    public BatchLoader(Function<List<K>, Map<K, V>> batchFunction, int maxBatchSize) {
+        this.batchFunction = batchFunction;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+    }
+
+    public void queue(K key) {
+        if (key != null && !loaded.containsKey(key)) {
+            pending.add(key);
+        }
+    }
+
+    // Values already in hand, such as users fetched together with their posts
+    public void prime(K key, V value) {
+        if (key != null && !loaded.containsKey(key)) {
+            loaded.put(key, value);
+            pending.remove(key);
+        }
+    }
+
+    public V load(K key) {
+        queue(key);
+        dispatch();
+        return loaded.get(key);
+    }
+
+    // In the order asked for; keys that resolve to nothing are left out
+    public Map<K, V> loadMany(Collection<K> keys) {
+        for (K key : keys) {
+            queue(key);
+        }
+        dispatch();
+        Map<K, V> result = new LinkedHashMap<>();
+        for (K key : keys) {
+            V value = loaded.get(key);
+            if (value != null) {
+                result.put(key, value);
+            }
+        }
+        return result;
+    }
+
+    public void dispatch() {
+        while (!pending.isEmpty()) {
+            List<K> batch = new ArrayList<>(Math.min(pending.size(), maxBatchSize));
+            for (K key : pending) {
+                if (batch.size() == maxBatchSize) {
+                    break;
+                }
+                batch.add(key);
+            }
+            pending.removeAll(batch);
+            Map<K, V> found = batchFunction.apply(batch);
+            for (K key : batch) {
+                loaded.putIfAbsent(key, found.get(key));
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.useronboarding.platform.service;
+
+// Materialized paths for comments: the fixed-width base-36 id of every ancestor followed by
+// the comment's own id. A subtree is then a prefix range on the indexed path column.
+public final class CommentPaths {
+    public static final int SEGMENT_WIDTH = 8;
+    public static final int MAX_LENGTH = 512;
+    public static final int MAX_DEPTH = MAX_LENGTH / SEGMENT_WIDTH - 1;
+
+    private CommentPaths() {
+    }
+
+    public static String child(String parentPath, long id) {
+        String segment = Long.toString(id, 36);
+        StringBuilder path = new StringBuilder(parentPath == null ? SEGMENT_WIDTH : parentPath.length() + SEGMENT_WIDTH);
+        if (parentPath != null) {
+            path.append(parentPath);
+        }
+        for (int i = segment.length(); i < SEGMENT_WIDTH; i++) {
+            path.append('0');
+        }
+        return path.append(segment).toString();
+    }
+
+    public static int depthOf(String path) {
+        return path.length() / SEGMENT_WIDTH - 1;
+    }
+
+    public static String prefixPattern(String path) {
+        return path + "%";
+    }
+}
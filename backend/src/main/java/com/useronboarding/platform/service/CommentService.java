@@ -0,0 +1,123 @@
+package com.useronboarding.platform.service;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.useronboarding.platform.model.Comment;
+import com.useronboarding.platform.model.Post;
+import com.useronboarding.platform.model.User;
+import com.useronboarding.platform.repository.CommentRepository;
+import com.useronboarding.platform.repository.PostRepository;
+
+@Service
+public class CommentService {
+    private static final Logger logger = LoggerFactory.getLogger(CommentService.class);
+
+    private static final int BACKFILL_BATCH_SIZE = 1000;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PostCache postCache;
+
+    @Autowired
+    private ConcurrencyRetry concurrencyRetry;
+
+    // Comment writes only add rows and shift counters, so a lost lock race is simply retried
+    public Comment addComment(Post post, User author, String content) {
+        return concurrencyRetry.execute("comments.add", () -> {
+            Comment comment = new Comment();
+            comment.setContent(content);
+            comment.setUser(author);
+            comment.setPost(post);
+
+            Comment saved = commentRepository.save(comment);
+            // The path embeds the generated id, so it is set on the managed entity and flushed at commit
+            saved.setPath(CommentPaths.child(null, saved.getId()));
+            saved.setDepth(0);
+            postRepository.adjustCommentCount(post.getId(), 1);
+            postCache.invalidate(post.getId());
+            return saved;
+        });
+    }
+
+    public Comment addReply(Comment parentComment, User author, String content) {
+        if (parentComment.getPath() == null) {
+            throw new IllegalStateException("Comment " + parentComment.getId() + " has no tree path yet");
+        }
+        if (parentComment.getDepth() >= CommentPaths.MAX_DEPTH) {
+            throw new IllegalArgumentException("Replies cannot be nested deeper than " + CommentPaths.MAX_DEPTH + " levels");
+        }
+        return concurrencyRetry.execute("comments.add", () -> {
+            Comment reply = new Comment();
+            reply.setContent(content);
+            reply.setUser(author);
+            reply.setPost(parentComment.getPost());
+            reply.setParentComment(parentComment);
+
+            Comment saved = commentRepository.save(reply);
+            saved.setPath(CommentPaths.child(parentComment.getPath(), saved.getId()));
+            saved.setDepth(parentComment.getDepth() + 1);
+            postRepository.adjustCommentCount(parentComment.getPost().getId(), 1);
+            postCache.invalidate(parentComment.getPost().getId());
+            commentRepository.adjustReplyCount(parentComment.getId(), 1);
+            return saved;
+        });
+    }
+
+    public long deleteComment(Comment comment) {
+        // The whole subtree goes in a fixed number of statements, however deep it is
+        String prefix = CommentPaths.prefixPattern(comment.getPath());
+        Long postId = comment.getPost().getId();
+        Long parentId = comment.getParentComment() == null ? null : comment.getParentComment().getId();
+
+        return concurrencyRetry.execute("comments.delete", () -> {
+            long removed = commentRepository.countSubtree(prefix);
+            commentRepository.deleteSubtreeLikes(prefix);
+            commentRepository.detachSubtree(prefix);
+            commentRepository.deleteSubtree(prefix);
+
+            postRepository.adjustCommentCount(postId, -removed);
+            postCache.invalidate(postId);
+            if (parentId != null) {
+                commentRepository.adjustReplyCount(parentId, -1);
+            }
+            return removed;
+        });
+    }
+
+    // Fills in paths for comments written before paths existed; a reply is picked up once its parent has one
+    public int backfillPaths() {
+        int updated = 0;
+        List<Object[]> batch;
+        do {
+            batch = jdbcTemplate.query("SELECT c.id, p.path FROM comments c LEFT JOIN comments p ON p.id = c.parent_id "
+                    + "WHERE c.path IS NULL AND (c.parent_id IS NULL OR p.path IS NOT NULL) LIMIT " + BACKFILL_BATCH_SIZE,
+                    (rs, rowNum) -> new Object[] { rs.getLong(1), rs.getString(2) });
+            if (!batch.isEmpty()) {
+                List<Object[]> args = batch.stream().map(row -> {
+                    String path = CommentPaths.child((String) row[1], (Long) row[0]);
+                    return new Object[] { path, CommentPaths.depthOf(path), row[0] };
+                }).toList();
+                jdbcTemplate.batchUpdate("UPDATE comments SET path = ?, depth = ? WHERE id = ?", args);
+                updated += batch.size();
+            }
+        } while (!batch.isEmpty());
+        if (updated > 0) {
+            logger.info("Backfilled tree paths for {} comments", updated);
+        }
+        return updated;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,196 @@
+package com.useronboarding.platform.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.useronboarding.platform.dto.CommentDTO;
+import com.useronboarding.platform.dto.ReplyPageDTO;
+import com.useronboarding.platform.exception.ResourceNotFoundException;
+import com.useronboarding.platform.model.Comment;
+import com.useronboarding.platform.repository.CommentRepository;
+import com.useronboarding.platform.repository.PostRepository;
+
+// Loads a post's comment tree level by level: two queries per level plus one for the
+// viewer's likes, however many comments the thread holds. Each level holds at most the
+// per-level limit and the whole tree at most max-nodes. The tree is assembled in memory.
+@Service
+public class CommentThreadService {
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private EntityLoaders entityLoaders;
+
+    @Value("${app.comments.thread.default-depth:3}")
+    private int defaultDepth;
+
+    @Value("${app.comments.thread.max-depth:10}")
+    private int maxDepth;
+
+    @Value("${app.comments.thread.default-per-level:20}")
+    private int defaultPerLevel;
+
+    @Value("${app.comments.thread.max-per-level:100}")
+    private int maxPerLevel;
+
+    @Value("${app.comments.thread.max-nodes:500}")
+    private int maxThreadNodes;
+
+    @Value("${app.comments.replies.default-page-size:20}")
+    private int defaultReplyPageSize;
+
+    @Value("${app.comments.replies.max-page-size:100}")
+    private int maxReplyPageSize;
+
+    @Value("${app.comments.subtree.max-nodes:500}")
+    private int maxSubtreeNodes;
+
+    @Transactional(readOnly = true)
+    public List<CommentDTO> loadThread(Long postId, Integer depth, Integer perLevel, Long viewerId) {
+        if (!postRepository.existsById(postId)) {
+            throw new ResourceNotFoundException("Post not found with id " + postId);
+        }
+        int levels = clamp(depth, defaultDepth, maxDepth);
+        int limit = clamp(perLevel, defaultPerLevel, maxPerLevel);
+
+        List<Comment> loaded = new ArrayList<>();
+        List<Comment> level = commentRepository.findTopLevelByPostId(postId, PageRequest.of(0, Math.min(limit, maxThreadNodes)));
+        List<Comment> roots = level;
+        loaded.addAll(level);
+
+        // Depth 1 means top-level comments only
+        for (int current = 1; current < levels && !level.isEmpty() && loaded.size() < maxThreadNodes; current++) {
+            List<Long> parentIds = new ArrayList<>();
+            for (Comment comment : level) {
+                if (comment.getReplyCount() > 0) {
+                    parentIds.add(comment.getId());
+                }
+            }
+            if (parentIds.isEmpty()) {
+                break;
+            }
+            List<Long> replyIds = commentRepository.findFirstReplyIds(parentIds,
+                    Math.min(limit, maxThreadNodes - loaded.size()));
+            level = replyIds.isEmpty() ? Collections.emptyList() : commentRepository.findWithUserByIdIn(replyIds);
+            loaded.addAll(level);
+        }
+
+        return assemble(roots, loaded, likedIds(loaded, viewerId));
+    }
+
+    // Whole subtree in one prefix-range query; pre-order means a truncated result never orphans a reply
+    @Transactional(readOnly = true)
+    public CommentDTO loadSubtree(Long commentId, Integer limit, Long viewerId) {
+        String path = commentRepository.findPathById(commentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Comment not found with id " + commentId));
+        if (path == null) {
+            throw new IllegalStateException("Comment " + commentId + " has no tree path yet");
+        }
+        int nodes = clamp(limit, maxSubtreeNodes, maxSubtreeNodes);
+        List<Comment> loaded = commentRepository.findSubtree(CommentPaths.prefixPattern(path), PageRequest.of(0, nodes));
+        // Deleted between the two queries
+        if (loaded.isEmpty()) {
+            throw new ResourceNotFoundException("Comment not found with id " + commentId);
+        }
+        return assemble(loaded.subList(0, 1), loaded, likedIds(loaded, viewerId)).get(0);
+    }
+
+    @Transactional(readOnly = true)
+    public ReplyPageDTO loadReplies(Long parentId, KeysetCursor cursor, Integer pageSize, Long viewerId) {
+        long replyCount = commentRepository.findReplyCount(parentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Comment not found with id " + parentId));
+        int limit = clamp(pageSize, defaultReplyPageSize, maxReplyPageSize);
+
+        // Fetch one extra row to learn whether another page exists without a count query
+        PageRequest page = PageRequest.of(0, limit + 1);
+        List<Comment> replies = cursor == null
+                ? commentRepository.findRepliesFirstPage(parentId, page)
+                : commentRepository.findRepliesAfter(parentId, cursor.getCreatedAt(), cursor.getId(), page);
+
+        boolean hasMore = replies.size() > limit;
+        if (hasMore) {
+            replies = replies.subList(0, limit);
+        }
+
+        Set<Long> likedIds = likedIds(replies, viewerId);
+        List<CommentDTO> dtos = new ArrayList<>(replies.size());
+        for (Comment reply : replies) {
+            dtos.add(CommentDTO.fromEntity(reply, likedIds.contains(reply.getId())));
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            Comment last = replies.get(replies.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new ReplyPageDTO(parentId, replyCount, dtos, nextCursor, hasMore);
+    }
+
+    // Individual comments without their replies, in the order asked for
+    @Transactional(readOnly = true)
+    public List<CommentDTO> loadComments(List<Long> ids, Long viewerId) {
+        List<Comment> comments = entityLoaders.loadComments(ids);
+        Set<Long> likedIds = likedIds(comments, viewerId);
+        List<CommentDTO> dtos = new ArrayList<>(comments.size());
+        for (Comment comment : comments) {
+            dtos.add(CommentDTO.fromEntity(comment, likedIds.contains(comment.getId())));
+        }
+        return dtos;
+    }
+
+    private List<CommentDTO> assemble(List<Comment> roots, List<Comment> loaded, Set<Long> likedIds) {
+        Map<Long, CommentDTO> byId = new HashMap<>();
+        for (Comment comment : loaded) {
+            byId.put(comment.getId(), CommentDTO.fromEntity(comment, likedIds.contains(comment.getId())));
+        }
+
+        // Replies were loaded in (createdAt, id) or path order, so appending keeps each reply list sorted
+        for (Comment comment : loaded) {
+            CommentDTO dto = byId.get(comment.getId());
+            if (dto.getParentId() != null) {
+                CommentDTO parent = byId.get(dto.getParentId());
+                if (parent != null) {
+                    parent.getReplies().add(dto);
+                }
+            }
+        }
+
+        List<CommentDTO> thread = new ArrayList<>(roots.size());
+        for (Comment root : roots) {
+            thread.add(byId.get(root.getId()));
+        }
+        return thread;
+    }
+
+    private Set<Long> likedIds(List<Comment> comments, Long viewerId) {
+        if (viewerId == null || comments.isEmpty()) {
+            return Collections.emptySet();
+        }
+        List<Long> ids = new ArrayList<>(comments.size());
+        for (Comment comment : comments) {
+            ids.add(comment.getId());
+        }
+        return new HashSet<>(commentRepository.findLikedCommentIds(viewerId, ids));
+    }
+
+    private static int clamp(Integer requested, int defaultValue, int max) {
+        if (requested == null || requested <= 0) {
+            return defaultValue;
+        }
+        return Math.min(requested, max);
+    }
+}
@@ -0,0 +1,77 @@
+package com.useronboarding.platform.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import jakarta.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.useronboarding.platform.metrics.MetricsRegistry;
+
+// Runs commutative writes (likes, counter updates) in their own transaction and re-runs them
+// after a lost version check, deadlock or lock timeout. Edits that are not commutative must
+// not go through here; they surface the conflict to the client instead. Inside an existing
+// transaction the action runs once and the outermost caller owns the retry.
+@Component
+public class ConcurrencyRetry {
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrencyRetry.class);
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MetricsRegistry metricsRegistry;
+
+    @Value("${app.concurrency.retry.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${app.concurrency.retry.backoff-ms:20}")
+    private long backoffMs;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public <T> T execute(String operation, Supplier<T> action) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return action.get();
+        }
+        metricsRegistry.counter("retry." + operation + ".calls").increment();
+        for (int attempt = 1;; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> action.get());
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= maxAttempts) {
+                    metricsRegistry.counter("retry." + operation + ".exhausted").increment();
+                    throw e;
+                }
+                metricsRegistry.counter("retry." + operation + ".retries").increment();
+                logger.debug("Retrying {} after attempt {} lost a concurrent update: {}", operation, attempt,
+                        e.getMessage());
+                backOff(attempt, e);
+            }
+        }
+    }
+
+    // Linear backoff with jitter so the colliding requests do not line up again
+    private void backOff(int attempt, ConcurrencyFailureException cause) {
+        try {
+            Thread.sleep(backoffMs * attempt + ThreadLocalRandom.current().nextLong(backoffMs + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.useronboarding.platform.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+import com.useronboarding.platform.model.Comment;
+import com.useronboarding.platform.model.Post;
+import com.useronboarding.platform.model.User;
+import com.useronboarding.platform.repository.CommentRepository;
+import com.useronboarding.platform.repository.PostRepository;
+import com.useronboarding.platform.repository.UserRepository;
+
+// One set of batch loaders per HTTP request, so everything a request asks for by id is fetched
+// with one IN query per entity type. Posts and comments come with their authors, which are primed
+// into the user loader on the way.
+@Component
+@RequestScope
+public class EntityLoaders {
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Value("${app.batch.max-in-size:500}")
+    private int maxInSize;
+
+    @Value("${app.batch.max-ids:100}")
+    private int maxIds;
+
+    private BatchLoader<Long, Post> posts;
+    private BatchLoader<Long, User> users;
+    private BatchLoader<Long, Comment> comments;
+
+    public BatchLoader<Long, Post> posts() {
+        if (posts == null) {
+            posts = new BatchLoader<>(ids -> {
+                Map<Long, Post> found = new HashMap<>();
+                for (Post post : postRepository.findWithUserByIdIn(ids)) {
+                    found.put(post.getId(), post);
+                    users().prime(post.getUser().getId(), post.getUser());
+                }
+                return found;
+            }, maxInSize);
+        }
+        return posts;
+    }
+
+    public BatchLoader<Long, User> users() {
+        if (users == null) {
+            users = new BatchLoader<>(ids -> {
+                Map<Long, User> found = new HashMap<>();
+                for (User user : userRepository.findByIdIn(ids)) {
+                    found.put(user.getId(), user);
+                }
+                return found;
+            }, maxInSize);
+        }
+        return users;
+    }
+
+    public BatchLoader<Long, Comment> comments() {
+        if (comments == null) {
+            comments = new BatchLoader<>(ids -> {
+                Map<Long, Comment> found = new HashMap<>();
+                for (Comment comment : commentRepository.findWithUserByIdIn(ids)) {
+                    found.put(comment.getId(), comment);
+                    users().prime(comment.getUser().getId(), comment.getUser());
+                }
+                return found;
+            }, maxInSize);
+        }
+        return comments;
+    }
+
+    // Bulk endpoints take a comma-separated id list from the query string, capped before anything is loaded
+    public List<Long> parseIds(String ids) {
+        List<Long> parsed = new ArrayList<>();
+        for (String id : ids.split(",")) {
+            if (!id.isBlank()) {
+                try {
+                    parsed.add(Long.valueOf(id.trim()));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid id: " + id);
+                }
+            }
+        }
+        if (parsed.isEmpty() || parsed.size() > maxIds) {
+            throw new IllegalArgumentException("Between 1 and " + maxIds + " ids can be requested at once");
+        }
+        return parsed;
+    }
+
+    public List<Post> loadPosts(List<Long> ids) {
+        return List.copyOf(posts().loadMany(ids).values());
+    }
+
+    public List<User> loadUsers(List<Long> ids) {
+        return List.copyOf(users().loadMany(ids).values());
+    }
+
+    public List<Comment> loadComments(List<Long> ids) {
+        return List.copyOf(comments().loadMany(ids).values());
+    }
+}
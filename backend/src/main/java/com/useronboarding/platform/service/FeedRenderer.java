@@ -0,0 +1,159 @@
+package com.useronboarding.platform.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import com.useronboarding.platform.repository.PostKey;
+import com.useronboarding.platform.repository.PostRepository;
+
+// Writes feed JSON by concatenating cached post fragments, so Jackson only runs for posts
+// that are not in PostCache yet. Each post matches PostDTO field for field.
+@Service
+public class FeedRenderer {
+    private static final byte[] LIKE_COUNT = bytes(",\"likeCount\":");
+    private static final byte[] LIKED_TRUE = bytes(",\"likedByCurrentUser\":true}");
+    private static final byte[] LIKED_FALSE = bytes(",\"likedByCurrentUser\":false}");
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private PostCache postCache;
+
+    @Autowired
+    private LikeBuffer likeBuffer;
+
+    @Autowired
+    private FeedService feedService;
+
+    @Autowired
+    private TimelineIndex timelineIndex;
+
+    // Only keyset and version columns, so the validator can be checked before rendering; the newest
+    // pages come from TimelineIndex and only need the key columns looked up by id
+    public Page findPage(KeysetCursor cursor, int pageSize) {
+        Page indexed = timelineIndex.globalPage(cursor, pageSize);
+        if (indexed != null) {
+            return indexed;
+        }
+        List<PostKey> keys = findKeys(cursor, pageSize + 1);
+        boolean hasMore = keys.size() > pageSize;
+        return new Page(hasMore ? keys.subList(0, pageSize) : keys, hasMore);
+    }
+
+    // One page as UTF-8 JSON: {"posts":[...],"nextCursor":...,"hasMore":...}
+    public byte[] render(Page page, Long viewerId) throws IOException {
+        List<PostKey> keys = page.getKeys();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256 * (keys.size() + 1));
+        out.write(bytes("{\"posts\":["));
+        writePosts(out, keys, viewerId, true);
+        out.write(']');
+        if (page.isHasMore()) {
+            PostKey last = keys.get(keys.size() - 1);
+            // Cursors are Base64url, so they never need escaping
+            out.write(bytes(",\"nextCursor\":\"" + new KeysetCursor(last.getCreatedAt(), last.getId()).encode() + "\""));
+        } else {
+            out.write(bytes(",\"nextCursor\":null"));
+        }
+        out.write(bytes(",\"hasMore\":" + page.isHasMore() + "}"));
+        return out.toByteArray();
+    }
+
+    // The whole feed as one JSON array, written batch by batch
+    public void writeAll(OutputStream out, Long viewerId) throws IOException {
+        int batchSize = feedService.getStreamBatchSize();
+        out.write('[');
+        boolean first = true;
+        KeysetCursor cursor = null;
+        List<PostKey> keys;
+        do {
+            keys = findKeys(cursor, batchSize);
+            if (!keys.isEmpty()) {
+                first = writePosts(out, keys, viewerId, first);
+                out.flush();
+                PostKey last = keys.get(keys.size() - 1);
+                cursor = new KeysetCursor(last.getCreatedAt(), last.getId());
+            }
+        } while (keys.size() == batchSize);
+        out.write(']');
+        out.flush();
+    }
+
+    private List<PostKey> findKeys(KeysetCursor cursor, int limit) {
+        PageRequest page = PageRequest.of(0, limit);
+        return cursor == null
+                ? postRepository.findFeedKeysFirstPage(page)
+                : postRepository.findFeedKeysAfter(cursor.getCreatedAt(), cursor.getId(), page);
+    }
+
+    // Returns whether the next post is still the first element of the array
+    private boolean writePosts(OutputStream out, List<PostKey> keys, Long viewerId, boolean first) throws IOException {
+        List<Long> ids = new ArrayList<>(keys.size());
+        for (PostKey key : keys) {
+            ids.add(key.getId());
+        }
+        Map<Long, PostFragment> fragments = postCache.getFragments(ids);
+        Set<Long> likedIds = viewerId == null
+                ? Collections.emptySet()
+                : new HashSet<>(postRepository.findLikedPostIds(viewerId, ids));
+
+        for (Long id : ids) {
+            PostFragment fragment = fragments.get(id);
+            if (fragment == null) {
+                continue;
+            }
+            if (!first) {
+                out.write(',');
+            }
+            first = false;
+            out.write(fragment.getJson());
+            out.write(LIKE_COUNT);
+            boolean liked = likedIds.contains(id);
+            long likeCount = fragment.getLikeCount();
+            if (likeBuffer.isEnabled()) {
+                likeCount += likeBuffer.pendingDelta(id);
+                Boolean pending = likeBuffer.pendingState(id, viewerId);
+                if (pending != null) {
+                    liked = pending;
+                }
+            }
+            out.write(bytes(Long.toString(likeCount)));
+            out.write(liked ? LIKED_TRUE : LIKED_FALSE);
+        }
+        return first;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    public static final class Page {
+        private final List<PostKey> keys;
+        private final boolean hasMore;
+
+        Page(List<PostKey> keys, boolean hasMore) {
+            this.keys = keys;
+            this.hasMore = hasMore;
+        }
+
+        public List<PostKey> getKeys() {
+            return keys;
+        }
+
+        public boolean isHasMore() {
+            return hasMore;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.useronboarding.platform.service;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.useronboarding.platform.dto.PostDTO;
+import com.useronboarding.platform.exception.ResourceNotFoundException;
+import com.useronboarding.platform.model.Post;
+import com.useronboarding.platform.repository.PostRepository;
+
+@Service
+public class FeedService {
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private LikeBuffer likeBuffer;
+
+    @Autowired
+    private PostCache postCache;
+
+    @Autowired
+    private EntityLoaders entityLoaders;
+
+    @Value("${app.feed.default-page-size:20}")
+    private int defaultPageSize;
+
+    @Value("${app.feed.max-page-size:100}")
+    private int maxPageSize;
+
+    @Value("${app.feed.stream-batch-size:200}")
+    private int streamBatchSize;
+
+    public int resolvePageSize(Integer requested) {
+        if (requested == null || requested <= 0) {
+            return defaultPageSize;
+        }
+        return Math.min(requested, maxPageSize);
+    }
+
+    public int getStreamBatchSize() {
+        return streamBatchSize;
+    }
+
+    // Served from PostCache; only the viewer's own like state needs a query
+    public PostDTO getPost(Long id, Long viewerId) {
+        PostDTO cached = postCache.get(id);
+        if (cached == null) {
+            throw new ResourceNotFoundException("Post not found with id " + id);
+        }
+        PostDTO dto = cached.copy();
+        if (viewerId != null) {
+            dto.setLikedByCurrentUser(!postRepository.findLikedPostIds(viewerId, List.of(id)).isEmpty());
+        }
+        return mergePendingLikes(dto, viewerId);
+    }
+
+    // Cards for many posts at once: one IN query for the posts and their authors, one for the viewer's likes
+    public List<PostDTO> getPosts(List<Long> ids, Long viewerId) {
+        return toDTOs(entityLoaders.loadPosts(ids), viewerId);
+    }
+
+    // Resolves "liked by me" for the whole batch in one query instead of touching each likes collection
+    public List<PostDTO> toDTOs(List<Post> posts, Long viewerId) {
+        Set<Long> likedPostIds = Collections.emptySet();
+        if (viewerId != null && !posts.isEmpty()) {
+            List<Long> postIds = posts.stream().map(Post::getId).collect(Collectors.toList());
+            likedPostIds = new HashSet<>(postRepository.findLikedPostIds(viewerId, postIds));
+        }
+
+        Set<Long> liked = likedPostIds;
+        return posts.stream()
+                .map(post -> mergePendingLikes(PostDTO.fromEntity(post, liked.contains(post.getId())), viewerId))
+                .collect(Collectors.toList());
+    }
+
+    // Buffered likes are not in the database yet, so fold them in to let users see their own like at once
+    private PostDTO mergePendingLikes(PostDTO dto, Long viewerId) {
+        if (!likeBuffer.isEnabled()) {
+            return dto;
+        }
+        dto.setLikeCount(dto.getLikeCount() + likeBuffer.pendingDelta(dto.getId()));
+        Boolean pendingState = likeBuffer.pendingState(dto.getId(), viewerId);
+        if (pendingState != null) {
+            dto.setLikedByCurrentUser(pendingState);
+        }
+        return dto;
+    }
+}
@@ -0,0 +1,106 @@
+package com.useronboarding.platform.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.useronboarding.platform.dto.UserSummaryDTO;
+import com.useronboarding.platform.exception.ResourceNotFoundException;
+import com.useronboarding.platform.model.User;
+import com.useronboarding.platform.payload.response.FollowResponse;
+import com.useronboarding.platform.repository.FollowRepository;
+import com.useronboarding.platform.repository.UserRepository;
+
+// Follow edges plus the counters kept on both users. Following and unfollowing are idempotent:
+// only a statement that actually changed a row moves the counters or the follower's timeline.
+@Service
+public class FollowService {
+    private static final int MAX_PAGE_SIZE = 100;
+
+    @Autowired
+    private FollowRepository followRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private UserProfileCache userProfileCache;
+
+    @Transactional
+    public FollowResponse follow(Long followerId, Long followeeId) {
+        if (followerId.equals(followeeId)) {
+            throw new IllegalArgumentException("Users cannot follow themselves");
+        }
+        // INSERT IGNORE would also swallow the foreign key error for a missing user
+        long followers = userRepository.findFollowerCount(followeeId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id " + followeeId));
+
+        if (followRepository.insertFollow(followerId, followeeId) > 0) {
+            userRepository.adjustFollowerCount(followeeId, 1);
+            userRepository.adjustFollowingCount(followerId, 1);
+            followers++;
+            timelineService.followed(followerId, followeeId, followers);
+            invalidateProfiles(followerId, followeeId);
+        }
+        return new FollowResponse(followeeId, true, followers);
+    }
+
+    @Transactional
+    public FollowResponse unfollow(Long followerId, Long followeeId) {
+        long followers = userRepository.findFollowerCount(followeeId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id " + followeeId));
+
+        if (followRepository.deleteFollow(followerId, followeeId) > 0) {
+            userRepository.adjustFollowerCount(followeeId, -1);
+            userRepository.adjustFollowingCount(followerId, -1);
+            followers--;
+            timelineService.unfollowed(followerId, followeeId, followers);
+            invalidateProfiles(followerId, followeeId);
+        }
+        return new FollowResponse(followeeId, false, followers);
+    }
+
+    // Pages are keyed by user id; pass the last id of one page as `afterId` to get the next
+    @Transactional(readOnly = true)
+    public List<UserSummaryDTO> findFollowers(Long userId, Long afterId, Integer limit) {
+        requireUser(userId);
+        return toSummaries(followRepository.findFollowersAfter(userId, afterId == null ? 0L : afterId, page(limit)));
+    }
+
+    @Transactional(readOnly = true)
+    public List<UserSummaryDTO> findFollowing(Long userId, Long afterId, Integer limit) {
+        requireUser(userId);
+        return toSummaries(followRepository.findFollowingAfter(userId, afterId == null ? 0L : afterId, page(limit)));
+    }
+
+    private void requireUser(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found with id " + userId);
+        }
+    }
+
+    private void invalidateProfiles(Long followerId, Long followeeId) {
+        userProfileCache.invalidate(followerId);
+        userProfileCache.invalidate(followeeId);
+    }
+
+    private static PageRequest page(Integer limit) {
+        int size = limit == null || limit <= 0 ? 20 : Math.min(limit, MAX_PAGE_SIZE);
+        return PageRequest.of(0, size);
+    }
+
+    private static List<UserSummaryDTO> toSummaries(List<User> users) {
+        List<UserSummaryDTO> summaries = new ArrayList<>(users.size());
+        for (User user : users) {
+            summaries.add(UserSummaryDTO.fromUser(user));
+        }
+        return summaries;
+    }
+}
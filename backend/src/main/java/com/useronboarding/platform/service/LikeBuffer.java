@@ -0,0 +1,430 @@
+package com.useronboarding.platform.service;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.useronboarding.platform.exception.ResourceNotFoundException;
+import com.useronboarding.platform.payload.response.LikeResponse;
+import com.useronboarding.platform.repository.PostRepository;
+
+// Write-behind buffer for post likes. Changes are coalesced per (post, user) in memory,
+// journaled before they are acknowledged, and written to the database in batches so a
+// viral post takes one counter update per flush instead of one per click. A post's like
+// count and each user's like state are read once per flush interval, outside the stripe
+// lock, and journal records are forced to disk in groups after the lock is released.
+@Component
+public class LikeBuffer {
+    private static final Logger logger = LoggerFactory.getLogger(LikeBuffer.class);
+
+    private static final int STRIPES = 64;
+    // Rows per multi-row INSERT or IN list when a post's changes are flushed
+    private static final int FLUSH_CHUNK = 500;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PostCache postCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.likes.buffer.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.likes.buffer.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    @Value("${app.likes.buffer.flush-threshold:1000}")
+    private int flushThreshold;
+
+    @Value("${app.likes.buffer.journal-dir:data/like-journal}")
+    private String journalDir;
+
+    @Value("${app.likes.buffer.journal-fsync:true}")
+    private boolean journalFsync;
+
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+    // Bumped under the stripe lock whenever a flush or discard drops entries of the stripe
+    private final long[] generations = new long[STRIPES];
+    private final Map<Long, PendingPost> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingChanges = new AtomicInteger();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    // Moves whenever buffered state does; the random epoch keeps versions from another instance or an
+    // earlier run from matching
+    private final String epoch = UUID.randomUUID().toString();
+    private final AtomicLong changes = new AtomicLong();
+
+    private ScheduledExecutorService flusher;
+    private TransactionTemplate transactionTemplate;
+    private LikeJournal journal;
+
+    public LikeBuffer() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        journal = new LikeJournal(Paths.get(journalDir), journalFsync);
+        replay(journal.open());
+
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "like-buffer-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        logger.info("Like write-behind buffer enabled (interval {} ms, threshold {})", flushIntervalMs, flushThreshold);
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushQuietly();
+        journal.close();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Folded into validators of responses that merge buffered likes for many posts at once
+    public String getVersion() {
+        return epoch + ":" + changes.get();
+    }
+
+    public LikeResponse set(Long postId, Long userId, boolean liked) {
+        return apply(postId, userId, liked, false);
+    }
+
+    public LikeResponse toggle(Long postId, Long userId) {
+        return apply(postId, userId, false, true);
+    }
+
+    // Used to merge buffered changes into feed and post responses. An entry is only read under its
+    // stripe lock, which a flush holds from commit until the entry is gone, so a change is never
+    // counted both from the database and from the buffer.
+    public long pendingDelta(Long postId) {
+        if (pending.get(postId) == null) {
+            return 0;
+        }
+        ReentrantLock lock = lockFor(postId);
+        lock.lock();
+        try {
+            PendingPost post = pending.get(postId);
+            return post == null ? 0 : post.delta;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Boolean pendingState(Long postId, Long userId) {
+        if (userId == null || pending.get(postId) == null) {
+            return null;
+        }
+        ReentrantLock lock = lockFor(postId);
+        lock.lock();
+        try {
+            PendingPost post = pending.get(postId);
+            PendingLike like = post == null ? null : post.likes.get(userId);
+            return like == null ? null : like.liked;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Drops buffered changes for a post that is being deleted; journaled records replay as no-ops
+    public void discard(Long postId) {
+        ReentrantLock lock = lockFor(postId);
+        lock.lock();
+        try {
+            PendingPost post = pending.remove(postId);
+            if (post != null) {
+                pendingChanges.addAndGet(-post.likes.size());
+                generations[stripeOf(postId)]++;
+                changes.incrementAndGet();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private LikeResponse apply(Long postId, Long userId, boolean liked, boolean toggle) {
+        int stripe = stripeOf(postId);
+        ReentrantLock lock = locks[stripe];
+        long sequence = 0;
+        LikeResponse response;
+        while (true) {
+            long generation;
+            boolean postKnown;
+            boolean likeKnown;
+            lock.lock();
+            try {
+                generation = generations[stripe];
+                PendingPost post = pending.get(postId);
+                postKnown = post != null;
+                likeKnown = postKnown && post.likes.containsKey(userId);
+            } finally {
+                lock.unlock();
+            }
+
+            // Database reads happen without the lock, once per post and user until the next flush
+            long persistedCount = postKnown ? 0 : postRepository.findLikeCount(postId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Post not found with id " + postId));
+            boolean persistedLiked = !likeKnown && postRepository.countLike(postId, userId) > 0;
+
+            lock.lock();
+            try {
+                PendingPost post = pending.get(postId);
+                // A flush in between may have committed after the reads; read again
+                if (generations[stripe] != generation || (post == null && postKnown)) {
+                    continue;
+                }
+                PendingLike like = post == null ? null : post.likes.get(userId);
+                if (like == null && likeKnown) {
+                    continue;
+                }
+                if (post == null) {
+                    post = new PendingPost(persistedCount);
+                }
+                boolean buffered = like != null;
+                if (!buffered) {
+                    like = new PendingLike(persistedLiked);
+                }
+                boolean next = toggle ? !like.liked : liked;
+
+                if (next != like.liked) {
+                    sequence = journal.append(postId, userId, next);
+                    pending.putIfAbsent(postId, post);
+                    post.delta += (next ? 1 : 0) - (like.liked ? 1 : 0);
+                    like.liked = next;
+                    changes.incrementAndGet();
+                    if (!buffered) {
+                        post.likes.put(userId, like);
+                        if (pendingChanges.incrementAndGet() >= flushThreshold) {
+                            requestFlush();
+                        }
+                    }
+                }
+                response = new LikeResponse(postId, next, post.persistedCount + post.delta);
+                break;
+            } finally {
+                lock.unlock();
+            }
+        }
+        // Acknowledged only once the record is on disk; concurrent clicks share one fsync. If the write
+        // fails the change stays buffered and still reaches the database with the next flush.
+        if (sequence > 0) {
+            journal.sync(sequence);
+        }
+        return response;
+    }
+
+    private void requestFlush() {
+        if (flushRequested.compareAndSet(false, true)) {
+            flusher.execute(this::flushQuietly);
+        }
+    }
+
+    private void flushQuietly() {
+        flushRequested.set(false);
+        try {
+            flush();
+        } catch (Exception e) {
+            logger.error("Like buffer flush failed; changes stay buffered and journaled", e);
+        }
+    }
+
+    // Each stripe is flushed under its lock, which readers also take, so none of them sees a change
+    // both in the database and in the buffer. Journal segments are dropped only after every stripe succeeds.
+    synchronized void flush() throws IOException {
+        if (pending.isEmpty()) {
+            return;
+        }
+        long closedSegment = journal.rotate();
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            ReentrantLock lock = locks[stripe];
+            lock.lock();
+            try {
+                flushStripe(stripe);
+            } finally {
+                lock.unlock();
+            }
+        }
+        journal.deleteThrough(closedSegment);
+    }
+
+    private void flushStripe(int stripe) {
+        List<Long> postIds = new ArrayList<>();
+        for (Long postId : pending.keySet()) {
+            if (stripeOf(postId) == stripe) {
+                postIds.add(postId);
+            }
+        }
+        if (postIds.isEmpty()) {
+            return;
+        }
+
+        int[] changed = new int[2];
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Object[]> counters = new ArrayList<>();
+            for (Long postId : postIds) {
+                List<Long> likers = new ArrayList<>();
+                List<Long> unlikers = new ArrayList<>();
+                for (Map.Entry<Long, PendingLike> like : pending.get(postId).likes.entrySet()) {
+                    if (like.getValue().liked != like.getValue().persisted) {
+                        (like.getValue().liked ? likers : unlikers).add(like.getKey());
+                    }
+                }
+                // The counter follows the rows actually inserted and deleted, so a state the buffer
+                // guessed wrong, such as a like another instance already wrote, cannot make it drift.
+                // A like and an unlike that cancel out still bump updated_at: the likers' state changed.
+                int inserted = insertLikes(postId, likers);
+                int deleted = deleteLikes(postId, unlikers);
+                if (inserted + deleted > 0) {
+                    counters.add(new Object[] { inserted - deleted, postId });
+                }
+                changed[0] += inserted;
+                changed[1] += deleted;
+            }
+            if (!counters.isEmpty()) {
+                jdbcTemplate.batchUpdate("UPDATE posts SET like_count = like_count + ?, updated_at = CURRENT_TIMESTAMP WHERE id = ?", counters);
+            }
+        });
+
+        for (Long postId : postIds) {
+            PendingPost post = pending.remove(postId);
+            pendingChanges.addAndGet(-post.likes.size());
+            postCache.invalidate(postId);
+        }
+        generations[stripe]++;
+        changes.incrementAndGet();
+        logger.debug("Flushed {} like inserts and {} deletes for {} posts", changed[0], changed[1], postIds.size());
+    }
+
+    private int insertLikes(Long postId, List<Long> userIds) {
+        int inserted = 0;
+        for (int from = 0; from < userIds.size(); from += FLUSH_CHUNK) {
+            List<Long> chunk = userIds.subList(from, Math.min(from + FLUSH_CHUNK, userIds.size()));
+            StringBuilder sql = new StringBuilder("INSERT IGNORE INTO post_likes (post_id, user_id) VALUES ");
+            Object[] args = new Object[chunk.size() * 2];
+            for (int i = 0; i < chunk.size(); i++) {
+                sql.append(i == 0 ? "(?, ?)" : ", (?, ?)");
+                args[2 * i] = postId;
+                args[2 * i + 1] = chunk.get(i);
+            }
+            inserted += jdbcTemplate.update(sql.toString(), args);
+        }
+        return inserted;
+    }
+
+    private int deleteLikes(Long postId, List<Long> userIds) {
+        int deleted = 0;
+        for (int from = 0; from < userIds.size(); from += FLUSH_CHUNK) {
+            List<Long> chunk = userIds.subList(from, Math.min(from + FLUSH_CHUNK, userIds.size()));
+            StringBuilder sql = new StringBuilder("DELETE FROM post_likes WHERE post_id = ? AND user_id IN (");
+            Object[] args = new Object[chunk.size() + 1];
+            args[0] = postId;
+            for (int i = 0; i < chunk.size(); i++) {
+                sql.append(i == 0 ? "?" : ", ?");
+                args[i + 1] = chunk.get(i);
+            }
+            deleted += jdbcTemplate.update(sql.append(')').toString(), args);
+        }
+        return deleted;
+    }
+
+    // Journal records left over from a crash are applied one by one so counters follow the rows actually changed
+    private void replay(List<LikeJournal.Record> records) throws IOException {
+        if (records.isEmpty()) {
+            return;
+        }
+        logger.info("Replaying {} journaled like changes", records.size());
+        transactionTemplate.executeWithoutResult(status -> {
+            for (LikeJournal.Record record : records) {
+                int changed = record.isLiked()
+                        ? jdbcTemplate.update("INSERT IGNORE INTO post_likes (post_id, user_id) VALUES (?, ?)",
+                                record.getPostId(), record.getUserId())
+                        : jdbcTemplate.update("DELETE FROM post_likes WHERE post_id = ? AND user_id = ?",
+                                record.getPostId(), record.getUserId());
+                if (changed > 0) {
+                    jdbcTemplate.update("UPDATE posts SET like_count = like_count + ?, updated_at = CURRENT_TIMESTAMP WHERE id = ?",
+                            record.isLiked() ? 1 : -1, record.getPostId());
+                }
+            }
+        });
+        journal.deleteThrough(journal.rotate());
+    }
+
+    private ReentrantLock lockFor(Long postId) {
+        return locks[stripeOf(postId)];
+    }
+
+    private static int stripeOf(Long postId) {
+        long id = postId;
+        return (int) ((id ^ (id >>> 32)) & (STRIPES - 1));
+    }
+
+    // Guarded by the stripe lock
+    private static final class PendingPost {
+        private final Map<Long, PendingLike> likes = new HashMap<>();
+        private final long persistedCount;
+        private long delta;
+
+        PendingPost(long persistedCount) {
+            this.persistedCount = persistedCount;
+        }
+    }
+
+    private static final class PendingLike {
+        private final boolean persisted;
+        private boolean liked;
+
+        PendingLike(boolean persisted) {
+            this.persisted = persisted;
+            this.liked = persisted;
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.useronboarding.platform.service;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Append-only log of acknowledged like changes that have not reached the database yet.
+// Records are absolute states ("user U likes post P: yes/no"), so replaying them is idempotent.
+// Appends only queue bytes in memory; sync() writes them out with one fsync per batch.
+public class LikeJournal {
+    private static final String SEGMENT_PREFIX = "likes-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    private final boolean fsync;
+    // Locks rather than synchronized: sync blocks on fsync, which would pin a virtual thread.
+    // `lock` guards the in-memory tail and the channel; `syncLock` admits one writer at a time.
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private ByteArrayOutputStream tail = new ByteArrayOutputStream();
+    private long appended;
+    private volatile long synced;
+    private long segmentSequence;
+    private FileChannel channel;
+
+    public LikeJournal(Path directory, boolean fsync) {
+        this.directory = directory;
+        this.fsync = fsync;
+    }
+
+    public List<Record> open() throws IOException {
+        lock.lock();
+        try {
+            Files.createDirectories(directory);
+            List<Path> segments = segments();
+            List<Record> records = new ArrayList<>();
+            for (Path segment : segments) {
+                try (BufferedReader reader = Files.newBufferedReader(segment, StandardCharsets.US_ASCII)) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        Record record = Record.parse(line);
+                        if (record != null) {
+                            records.add(record);
+                        }
+                    }
+                }
+                segmentSequence = Math.max(segmentSequence, sequenceOf(segment));
+            }
+            channel = openSegment(++segmentSequence);
+            return records;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Queues a record in memory and returns its sequence; it is durable once sync(sequence) returns
+    public long append(long postId, long userId, boolean liked) {
+        byte[] line = (postId + " " + userId + " " + (liked ? 1 : 0) + "\n").getBytes(StandardCharsets.US_ASCII);
+        lock.lock();
+        try {
+            tail.write(line, 0, line.length);
+            return ++appended;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Group commit: the first caller in writes and forces everything queued so far with one fsync,
+    // and callers whose records went out with it return without touching the file
+    public void sync(long sequence) {
+        if (synced >= sequence) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            if (synced < sequence) {
+                writeTail();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write like journal", e);
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    // Starts a new segment and returns the sequence of the last closed one; everything up to
+    // and including it can be deleted once the buffered state has been flushed. Records queued
+    // while it runs land in the new segment, which only keeps them longer.
+    public long rotate() throws IOException {
+        syncLock.lock();
+        try {
+            writeTail();
+            FileChannel closedChannel;
+            long closed;
+            lock.lock();
+            try {
+                closed = segmentSequence;
+                closedChannel = channel;
+                channel = openSegment(++segmentSequence);
+            } finally {
+                lock.unlock();
+            }
+            closedChannel.close();
+            return closed;
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    public void deleteThrough(long sequence) throws IOException {
+        lock.lock();
+        try {
+            for (Path segment : segments()) {
+                if (sequenceOf(segment) <= sequence) {
+                    Files.deleteIfExists(segment);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void close() throws IOException {
+        syncLock.lock();
+        try {
+            if (channel != null) {
+                writeTail();
+                channel.close();
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    // Caller holds syncLock. The tail is swapped out under the short lock, so appends never wait on the disk.
+    private void writeTail() throws IOException {
+        byte[] bytes;
+        long target;
+        FileChannel out;
+        lock.lock();
+        try {
+            bytes = tail.toByteArray();
+            tail = new ByteArrayOutputStream(Math.max(32, bytes.length));
+            target = appended;
+            out = channel;
+        } finally {
+            lock.unlock();
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            if (fsync) {
+                out.force(false);
+            }
+        } catch (IOException e) {
+            // Queue the batch again ahead of newer records so a later sync retries it in order. The write
+            // may have left half a line behind, so the retry starts with a newline that ends it as a
+            // record that fails to parse.
+            lock.lock();
+            try {
+                ByteArrayOutputStream retry = new ByteArrayOutputStream(bytes.length + tail.size() + 1);
+                retry.write('\n');
+                retry.write(bytes, 0, bytes.length);
+                tail.writeTo(retry);
+                tail = retry;
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+        synced = target;
+    }
+
+    private FileChannel openSegment(long sequence) throws IOException {
+        Path segment = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX));
+        return FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+            }).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static long sequenceOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    public static final class Record {
+        private final long postId;
+        private final long userId;
+        private final boolean liked;
+
+        Record(long postId, long userId, boolean liked) {
+            this.postId = postId;
+            this.userId = userId;
+            this.liked = liked;
+        }
+
+        public long getPostId() {
+            return postId;
+        }
+
+        public long getUserId() {
+            return userId;
+        }
+
+        public boolean isLiked() {
+            return liked;
+        }
+
+        // A torn last line after a crash is skipped; it was never acknowledged
+        static Record parse(String line) {
+            String[] parts = line.split(" ");
+            if (parts.length != 3) {
+                return null;
+            }
+            try {
+                return new Record(Long.parseLong(parts[0]), Long.parseLong(parts[1]), "1".equals(parts[2]));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+}
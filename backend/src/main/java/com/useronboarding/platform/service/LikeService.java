@@ -0,0 +1,108 @@
+package com.useronboarding.platform.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.useronboarding.platform.exception.ResourceNotFoundException;
+import com.useronboarding.platform.payload.response.LikeResponse;
+import com.useronboarding.platform.repository.CommentRepository;
+import com.useronboarding.platform.repository.PostRepository;
+
+// Every operation is a single keyed insert or delete on the join table plus a counter
+// update, so its cost does not depend on how many likes the post or comment already has.
+@Service
+public class LikeService {
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private LikeBuffer likeBuffer;
+
+    @Autowired
+    private PostCache postCache;
+
+    @Autowired
+    private ConcurrencyRetry concurrencyRetry;
+
+    public LikeResponse likePost(Long postId, Long userId) {
+        if (likeBuffer.isEnabled()) {
+            return likeBuffer.set(postId, userId, true);
+        }
+        return concurrencyRetry.execute("likes.post", () -> {
+            if (postRepository.insertLike(postId, userId) > 0) {
+                postRepository.adjustLikeCount(postId, 1);
+                postCache.invalidate(postId);
+            }
+            return new LikeResponse(postId, true, postLikeCount(postId));
+        });
+    }
+
+    public LikeResponse unlikePost(Long postId, Long userId) {
+        if (likeBuffer.isEnabled()) {
+            return likeBuffer.set(postId, userId, false);
+        }
+        return concurrencyRetry.execute("likes.post", () -> {
+            if (postRepository.deleteLike(postId, userId) > 0) {
+                postRepository.adjustLikeCount(postId, -1);
+                postCache.invalidate(postId);
+            }
+            return new LikeResponse(postId, false, postLikeCount(postId));
+        });
+    }
+
+    public LikeResponse togglePostLike(Long postId, Long userId) {
+        if (likeBuffer.isEnabled()) {
+            return likeBuffer.toggle(postId, userId);
+        }
+        return concurrencyRetry.execute("likes.post", () -> {
+            if (postRepository.deleteLike(postId, userId) > 0) {
+                postRepository.adjustLikeCount(postId, -1);
+                postCache.invalidate(postId);
+                return new LikeResponse(postId, false, postLikeCount(postId));
+            }
+            return likePost(postId, userId);
+        });
+    }
+
+    public LikeResponse likeComment(Long commentId, Long userId) {
+        return concurrencyRetry.execute("likes.comment", () -> {
+            if (commentRepository.insertLike(commentId, userId) > 0) {
+                commentRepository.adjustLikeCount(commentId, 1);
+            }
+            return new LikeResponse(commentId, true, commentLikeCount(commentId));
+        });
+    }
+
+    public LikeResponse unlikeComment(Long commentId, Long userId) {
+        return concurrencyRetry.execute("likes.comment", () -> {
+            if (commentRepository.deleteLike(commentId, userId) > 0) {
+                commentRepository.adjustLikeCount(commentId, -1);
+            }
+            return new LikeResponse(commentId, false, commentLikeCount(commentId));
+        });
+    }
+
+    public LikeResponse toggleCommentLike(Long commentId, Long userId) {
+        return concurrencyRetry.execute("likes.comment", () -> {
+            if (commentRepository.deleteLike(commentId, userId) > 0) {
+                commentRepository.adjustLikeCount(commentId, -1);
+                return new LikeResponse(commentId, false, commentLikeCount(commentId));
+            }
+            return likeComment(commentId, userId);
+        });
+    }
+
+    // Reading the counter doubles as the existence check, since INSERT IGNORE also swallows foreign key errors
+    private long postLikeCount(Long postId) {
+        return postRepository.findLikeCount(postId)
+                .orElseThrow(() -> new ResourceNotFoundException("Post not found with id " + postId));
+    }
+
+    private long commentLikeCount(Long commentId) {
+        return commentRepository.findLikeCount(commentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Comment not found with id " + commentId));
+    }
+}
@@ -0,0 +1,127 @@
+package com.useronboarding.platform.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import jakarta.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import com.useronboarding.platform.cache.LocalCache;
+import com.useronboarding.platform.cache.SharedCacheTier;
+import com.useronboarding.platform.cache.TieredCache;
+import com.useronboarding.platform.dto.PostDTO;
+import com.useronboarding.platform.metrics.MetricsRegistry;
+import com.useronboarding.platform.model.Post;
+import com.useronboarding.platform.repository.PostRepository;
+
+// Viewer-independent post DTOs and pre-rendered JSON fragments by id. Anything that changes
+// a post's content or counters must call invalidate; per-viewer like state is added on top.
+@Component
+public class PostCache {
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private MetricsRegistry metricsRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired(required = false)
+    private SharedCacheTier sharedCacheTier;
+
+    @Value("${app.cache.posts.max-size:10000}")
+    private int maxSize;
+
+    @Value("${app.cache.posts.ttl-seconds:30}")
+    private long ttlSeconds;
+
+    @Value("${app.cache.posts.shared-ttl-seconds:300}")
+    private long sharedTtlSeconds;
+
+    @Value("${app.cache.post-fragments.max-size:20000}")
+    private int fragmentMaxSize;
+
+    @Value("${app.cache.post-fragments.ttl-seconds:30}")
+    private long fragmentTtlSeconds;
+
+    private TieredCache<Long, PostDTO> cache;
+    private LocalCache<Long, PostFragment> fragments;
+
+    @PostConstruct
+    public void init() {
+        cache = new TieredCache<>("posts", new LocalCache<>(maxSize, Duration.ofSeconds(ttlSeconds)),
+                sharedCacheTier, Duration.ofSeconds(sharedTtlSeconds));
+        metricsRegistry.registerCache("posts", cache);
+        fragments = new LocalCache<>(fragmentMaxSize, Duration.ofSeconds(fragmentTtlSeconds));
+        metricsRegistry.registerCache("postFragments", fragments);
+    }
+
+    // The returned DTO is shared between requests and must not be modified
+    public PostDTO get(Long id) {
+        return cache.get(id, key -> postRepository.findWithUserById(key).map(PostDTO::fromEntity).orElse(null));
+    }
+
+    // Posts missing from the cache are loaded in one query and rendered; deleted posts are absent from the result
+    Map<Long, PostFragment> getFragments(List<Long> ids) {
+        Map<Long, PostFragment> found = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            PostFragment fragment = fragments.get(id);
+            if (fragment != null) {
+                found.put(id, fragment);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (Post post : postRepository.findWithUserByIdIn(missing)) {
+                PostFragment fragment = render(PostDTO.fromEntity(post));
+                fragments.put(post.getId(), fragment);
+                found.put(post.getId(), fragment);
+            }
+        }
+        return found;
+    }
+
+    // Evicts now and again after commit, so a read racing the writer cannot re-cache the old row
+    public void invalidate(Long id) {
+        cache.invalidate(id);
+        fragments.invalidate(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(id);
+                    fragments.invalidate(id);
+                }
+            });
+        }
+    }
+
+    private PostFragment render(PostDTO dto) {
+        ObjectNode node = objectMapper.valueToTree(dto);
+        node.remove("likeCount");
+        node.remove("likedByCurrentUser");
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(node);
+            // Drop the closing brace so the per-request fields can be appended
+            return new PostFragment(Arrays.copyOf(json, json.length - 1), dto.getLikeCount());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not render post " + dto.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.useronboarding.platform.service;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.useronboarding.platform.dto.DeletionJobDTO;
+
+// Deletes a post with set-based statements in bounded batches, each in its own short transaction,
+// so the cost follows the number of batches instead of the number of entities Hibernate would load.
+@Service
+public class PostDeletionService {
+    private static final Logger logger = LoggerFactory.getLogger(PostDeletionService.class);
+
+    private static final String SELECT_DEEPEST_LEVEL = "SELECT MAX(depth) FROM comments WHERE post_id = :postId";
+    private static final String SELECT_LEVEL_BATCH = "SELECT id FROM comments WHERE post_id = :postId AND depth = :depth LIMIT :limit";
+    private static final String DELETE_COMMENT_LIKES = "DELETE FROM comment_likes WHERE comment_id IN (:ids)";
+    private static final String DELETE_COMMENTS = "DELETE FROM comments WHERE id IN (:ids)";
+    private static final String DELETE_POST_LIKES = "DELETE FROM post_likes WHERE post_id = :postId LIMIT :limit";
+    private static final String DELETE_POST = "DELETE FROM posts WHERE id = :postId";
+    private static final String INSERT_TOMBSTONE = "INSERT INTO deleted_posts (post_id, deleted_at) VALUES (:postId, CURRENT_TIMESTAMP)";
+
+    public enum Status {
+        PENDING, RUNNING, COMPLETED, FAILED
+    }
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private LikeBuffer likeBuffer;
+
+    @Autowired
+    private PostCache postCache;
+
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private TimelineIndex timelineIndex;
+
+    @Value("${app.posts.deletion.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.posts.deletion.async-threads:1}")
+    private int asyncThreads;
+
+    @Value("${app.posts.deletion.job-retention-minutes:60}")
+    private long jobRetentionMinutes;
+
+    private TransactionTemplate transactionTemplate;
+    private ExecutorService executor;
+    // A plain map: a size-bounded cache could evict a job that is still running or waiting to be polled
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void start() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(asyncThreads, runnable -> {
+            Thread thread = new Thread(runnable, "post-deletion-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public DeletionJobDTO delete(Long postId, Long requestedBy) {
+        Job job = new Job(postId, requestedBy);
+        run(job);
+        if (job.status == Status.FAILED) {
+            throw new IllegalStateException(job.error);
+        }
+        return job.toDTO();
+    }
+
+    public DeletionJobDTO submit(Long postId, Long requestedBy) {
+        expireJobs();
+        Job job = new Job(postId, requestedBy);
+        jobs.put(job.id, job);
+        executor.execute(() -> run(job));
+        return job.toDTO();
+    }
+
+    // Jobs are only visible to whoever requested them
+    public DeletionJobDTO getJob(String jobId, Long requesterId) {
+        Job job = jobs.get(jobId);
+        if (job == null || !job.requestedBy.equals(requesterId) || job.isExpired(retentionCutoff())) {
+            return null;
+        }
+        return job.toDTO();
+    }
+
+    // Finished jobs stay readable for job-retention-minutes; running ones are never dropped
+    private void expireJobs() {
+        long cutoff = retentionCutoff();
+        jobs.values().removeIf(job -> job.isExpired(cutoff));
+    }
+
+    private long retentionCutoff() {
+        return System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(jobRetentionMinutes);
+    }
+
+    private void run(Job job) {
+        job.status = Status.RUNNING;
+        try {
+            likeBuffer.discard(job.postId);
+            drain(() -> inTransaction(() -> deleteCommentBatch(job)));
+            drain(() -> inTransaction(() -> deletePostLikeBatch(job)));
+            // A widely delivered post has one timeline entry per follower, so these go in batches too
+            drain(() -> inTransaction(() -> deleteTimelineBatch(job)));
+            // Comments or likes written while the batches ran are swept up together with the post row
+            transactionTemplate.executeWithoutResult(status -> {
+                drain(() -> deleteCommentBatch(job));
+                drain(() -> deletePostLikeBatch(job));
+                MapSqlParameterSource params = new MapSqlParameterSource("postId", job.postId);
+                // The tombstone moves the all-posts validator on every instance and survives restarts
+                if (jdbcTemplate.update(DELETE_POST, params) > 0) {
+                    jdbcTemplate.update(INSERT_TOMBSTONE, params);
+                }
+                timelineService.cancelFanout(job.postId);
+            });
+            postCache.invalidate(job.postId);
+            timelineIndex.postDeleted(job.postId);
+            job.status = Status.COMPLETED;
+            logger.info("Deleted post {} with {} comments and {} likes in {} batches", job.postId,
+                    job.commentsDeleted, job.likesDeleted, job.batches);
+        } catch (Exception e) {
+            job.error = e.getMessage();
+            job.status = Status.FAILED;
+            logger.error("Deletion of post {} failed after {} batches", job.postId, job.batches, e);
+        } finally {
+            job.finishedAt = new Date();
+        }
+    }
+
+    // Runs a batch again until it deletes nothing
+    private static void drain(IntSupplier batch) {
+        int deleted;
+        do {
+            deleted = batch.getAsInt();
+        } while (deleted > 0);
+    }
+
+    private int inTransaction(IntSupplier batch) {
+        Integer deleted = transactionTemplate.execute(status -> batch.getAsInt());
+        return deleted == null ? 0 : deleted;
+    }
+
+    // One tree level per batch, deepest first, so no deleted row is still the parent of a surviving reply
+    private int deleteCommentBatch(Job job) {
+        MapSqlParameterSource params = new MapSqlParameterSource("postId", job.postId);
+        Integer depth = jdbcTemplate.queryForObject(SELECT_DEEPEST_LEVEL, params, Integer.class);
+        if (depth == null) {
+            return 0;
+        }
+        params.addValue("depth", depth).addValue("limit", batchSize);
+        List<Long> ids = jdbcTemplate.queryForList(SELECT_LEVEL_BATCH, params, Long.class);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        MapSqlParameterSource idParams = new MapSqlParameterSource("ids", ids);
+        job.likesDeleted += jdbcTemplate.update(DELETE_COMMENT_LIKES, idParams);
+        int deleted = jdbcTemplate.update(DELETE_COMMENTS, idParams);
+        job.commentsDeleted += deleted;
+        job.batches++;
+        return deleted;
+    }
+
+    private int deleteTimelineBatch(Job job) {
+        int deleted = timelineService.deletePostEntries(job.postId, batchSize);
+        if (deleted > 0) {
+            job.batches++;
+        }
+        return deleted;
+    }
+
+    private int deletePostLikeBatch(Job job) {
+        int deleted = jdbcTemplate.update(DELETE_POST_LIKES,
+                new MapSqlParameterSource("postId", job.postId).addValue("limit", batchSize));
+        job.likesDeleted += deleted;
+        if (deleted > 0) {
+            job.batches++;
+        }
+        return deleted;
+    }
+
+    // Written by one worker thread and read by status requests
+    private static final class Job {
+        private final String id = UUID.randomUUID().toString();
+        private final Long postId;
+        private final Long requestedBy;
+        private final Date submittedAt = new Date();
+        private volatile Status status = Status.PENDING;
+        private volatile long commentsDeleted;
+        private volatile long likesDeleted;
+        private volatile int batches;
+        private volatile Date finishedAt;
+        private volatile String error;
+
+        Job(Long postId, Long requestedBy) {
+            this.postId = postId;
+            this.requestedBy = requestedBy;
+        }
+
+        boolean isExpired(long cutoff) {
+            Date finished = finishedAt;
+            return finished != null && finished.getTime() < cutoff;
+        }
+
+        DeletionJobDTO toDTO() {
+            return new DeletionJobDTO(id, postId, status.name(), commentsDeleted, likesDeleted, batches,
+                    submittedAt, finishedAt, error);
+        }
+    }
+}
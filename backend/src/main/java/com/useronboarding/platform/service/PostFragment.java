@@ -0,0 +1,21 @@
+package com.useronboarding.platform.service;
+
+// A post rendered to UTF-8 JSON without its closing brace and without the fields that vary
+// per request (likeCount, which may carry buffered likes, and likedByCurrentUser).
+final class PostFragment {
+    private final byte[] json;
+    private final long likeCount;
+
+    PostFragment(byte[] json, long likeCount) {
+        this.json = json;
+        this.likeCount = likeCount;
+    }
+
+    byte[] getJson() {
+        return json;
+    }
+
+    long getLikeCount() {
+        return likeCount;
+    }
+}
@@ -0,0 +1,152 @@
+package com.useronboarding.platform.service;
+
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// The newest `capacity` posts of one timeline as two parallel primitive arrays, ordered by
+// (createdAt, id) and used as a ring: adding past capacity overwrites the oldest slot. Holding a
+// post costs 16 bytes and no object, so thousands of rings add nothing for the collector to trace.
+final class PostIdRing {
+    private final long[] ids;
+    private final long[] times;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Physical slot of the oldest entry; logical index i lives at (start + i) % capacity
+    private int start;
+    private int size;
+    // True while the ring holds every post of its timeline, so running off its oldest end means the timeline ended
+    private boolean complete;
+
+    PostIdRing(int capacity) {
+        this.ids = new long[capacity];
+        this.times = new long[capacity];
+        this.complete = true;
+    }
+
+    // Entries must arrive newest first, as the keyset queries return them; `complete` says whether the source ran out
+    static PostIdRing of(long[] newestFirstIds, long[] newestFirstTimes, int count, int capacity, boolean complete) {
+        PostIdRing ring = new PostIdRing(capacity);
+        int kept = Math.min(count, capacity);
+        for (int i = 0; i < kept; i++) {
+            ring.ids[kept - 1 - i] = newestFirstIds[i];
+            ring.times[kept - 1 - i] = newestFirstTimes[i];
+        }
+        ring.size = kept;
+        ring.complete = complete && count <= capacity;
+        return ring;
+    }
+
+    int capacity() {
+        return ids.length;
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // New posts are nearly always the newest, which makes this O(1); a late arrival is shifted into place
+    void add(long id, long time) {
+        lock.writeLock().lock();
+        try {
+            int position = size;
+            while (position > 0 && newer(time, id, timeAt(position - 1), idAt(position - 1)) < 0) {
+                position--;
+            }
+            if (position > 0 && idAt(position - 1) == id && timeAt(position - 1) == time) {
+                return;
+            }
+            if (size == ids.length) {
+                if (position == 0) {
+                    // Older than everything held; the ring already stands for the newest posts only
+                    complete = false;
+                    return;
+                }
+                start = (start + 1) % ids.length;
+                size--;
+                position--;
+                complete = false;
+            }
+            for (int i = size; i > position; i--) {
+                set(i, idAt(i - 1), timeAt(i - 1));
+            }
+            set(position, id, time);
+            size++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    boolean remove(long id) {
+        lock.writeLock().lock();
+        try {
+            for (int i = size - 1; i >= 0; i--) {
+                if (idAt(i) == id) {
+                    for (int j = i; j < size - 1; j++) {
+                        set(j, idAt(j + 1), timeAt(j + 1));
+                    }
+                    size--;
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Up to `limit` ids strictly older than the cursor, newest first. Returns null when the ring cannot
+    // answer: the page runs past its oldest entry and older posts may exist that it no longer holds.
+    long[] page(long cursorTime, long cursorId, int limit) {
+        lock.readLock().lock();
+        try {
+            // Binary search for the first logical index at or after the cursor; everything below it is older
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (newer(timeAt(mid), idAt(mid), cursorTime, cursorId) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            int available = low;
+            if (available < limit && !complete) {
+                return null;
+            }
+            int count = Math.min(limit, available);
+            long[] page = new long[count];
+            for (int i = 0; i < count; i++) {
+                page[i] = idAt(available - 1 - i);
+            }
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long idAt(int logical) {
+        return ids[(start + logical) % ids.length];
+    }
+
+    private long timeAt(int logical) {
+        return times[(start + logical) % ids.length];
+    }
+
+    private void set(int logical, long id, long time) {
+        int slot = (start + logical) % ids.length;
+        ids[slot] = id;
+        times[slot] = time;
+    }
+
+    // Negative when (time, id) sorts before (otherTime, otherId), that is, is older
+    private static int newer(long time, long id, long otherTime, long otherId) {
+        if (time != otherTime) {
+            return time < otherTime ? -1 : 1;
+        }
+        return Long.compare(id, otherId);
+    }
+}
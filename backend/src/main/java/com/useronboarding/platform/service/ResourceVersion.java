@@ -0,0 +1,43 @@
+package com.useronboarding.platform.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import org.springframework.util.DigestUtils;
+
+// HTTP validator for a response. The ETag digests version columns and counters rather than
+// the body. Last-Modified is only set for single resources: a list can lose a row without
+// its newest timestamp moving.
+public final class ResourceVersion {
+    private final StringBuilder parts;
+    private long lastModified = -1;
+
+    public ResourceVersion(String kind) {
+        this.parts = new StringBuilder(kind);
+    }
+
+    public ResourceVersion add(Object part) {
+        parts.append('|').append(part);
+        return this;
+    }
+
+    public ResourceVersion add(Date date) {
+        return add(date == null ? null : date.getTime());
+    }
+
+    public ResourceVersion modifiedAt(Date date) {
+        add(date);
+        if (date != null) {
+            lastModified = Math.max(lastModified, date.getTime());
+        }
+        return this;
+    }
+
+    public String getETag() {
+        return "W/\"" + DigestUtils.md5DigestAsHex(parts.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+}
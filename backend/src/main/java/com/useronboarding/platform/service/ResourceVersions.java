@@ -0,0 +1,130 @@
+package com.useronboarding.platform.service;
+
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.useronboarding.platform.repository.CommentRepository;
+import com.useronboarding.platform.repository.DeletedPostRepository;
+import com.useronboarding.platform.repository.PostKey;
+import com.useronboarding.platform.repository.PostRepository;
+import com.useronboarding.platform.repository.ProfileVersion;
+import com.useronboarding.platform.repository.UserRepository;
+import com.useronboarding.platform.repository.VersionSummary;
+
+// Validators for the read endpoints, built from projection queries over updated_at columns
+// and counters so a conditional GET is answered before any entity graph is loaded.
+// Every method returns null when the resource does not exist, leaving the 404 to the handler.
+@Service
+public class ResourceVersions {
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DeletedPostRepository deletedPostRepository;
+
+    @Autowired
+    private LikeBuffer likeBuffer;
+
+    public ResourceVersion post(Long postId, Long viewerId) {
+        PostKey key = postRepository.findKeyById(postId).orElse(null);
+        if (key == null) {
+            return null;
+        }
+        ResourceVersion version = new ResourceVersion("post").add(viewerId);
+        addPost(version, key, viewerId);
+        // Buffered likes are not reflected in updated_at until they are flushed
+        if (!likeBuffer.isEnabled()) {
+            version.modifiedAt(key.getUpdatedAt());
+        }
+        return version;
+    }
+
+    public ResourceVersion feedPage(List<PostKey> keys, boolean hasMore, Long viewerId) {
+        ResourceVersion version = new ResourceVersion("feed").add(viewerId).add(hasMore);
+        for (PostKey key : keys) {
+            addPost(version, key, viewerId);
+        }
+        return version;
+    }
+
+    // Index-end lookups instead of a scan, so a poll costs the same at any table size. Inserts, edits
+    // and counter changes all bump posts.updated_at; deletes leave a tombstone in deleted_posts
+    public ResourceVersion allPosts(Long viewerId) {
+        ResourceVersion version = new ResourceVersion("posts").add(viewerId)
+                .add(deletedPostRepository.findLastId().orElse(null))
+                .add(postRepository.findLastModified().orElse(null))
+                .add(userRepository.findLastModified().orElse(null));
+        // Buffered likes change counts and liked state without touching posts.updated_at until a flush
+        if (likeBuffer.isEnabled()) {
+            version.add(likeBuffer.getVersion());
+        }
+        return version;
+    }
+
+    public ResourceVersion postsByUser(Long userId, Long viewerId) {
+        Date userUpdatedAt = userRepository.findUpdatedAtById(userId).orElse(null);
+        if (userUpdatedAt == null) {
+            return null;
+        }
+        return addSummary(new ResourceVersion("userPosts").add(userId).add(viewerId),
+                postRepository.findVersionSummaryByUserId(userId));
+    }
+
+    public ResourceVersion thread(Long postId, Integer depth, Integer perLevel, Long viewerId) {
+        if (!postRepository.existsById(postId)) {
+            return null;
+        }
+        return addSummary(new ResourceVersion("thread").add(postId).add(depth).add(perLevel).add(viewerId),
+                commentRepository.findVersionSummaryByPostId(postId));
+    }
+
+    public ResourceVersion replies(Long parentId, String cursor, Integer limit, Long viewerId) {
+        if (commentRepository.findReplyCount(parentId).isEmpty()) {
+            return null;
+        }
+        return addSummary(new ResourceVersion("replies").add(parentId).add(cursor).add(limit).add(viewerId),
+                commentRepository.findVersionSummaryByParentId(parentId));
+    }
+
+    public ResourceVersion subtree(Long commentId, Integer limit, Long viewerId) {
+        String path = commentRepository.findPathById(commentId).orElse(null);
+        if (path == null) {
+            return null;
+        }
+        return addSummary(new ResourceVersion("subtree").add(commentId).add(limit).add(viewerId),
+                commentRepository.findVersionSummaryBySubtree(CommentPaths.prefixPattern(path)));
+    }
+
+    public ResourceVersion profile(Long userId) {
+        ProfileVersion profile = userRepository.findProfileVersionById(userId).orElse(null);
+        if (profile == null) {
+            return null;
+        }
+        // No Last-Modified: follows and password rehashes change the row without moving updated_at.
+        // The version is in the body, and clients send it back on updates
+        return new ResourceVersion("profile").add(userId).add(profile.getUpdatedAt()).add(profile.getVersion())
+                .add(profile.getFollowerCount()).add(profile.getFollowingCount());
+    }
+
+    private void addPost(ResourceVersion version, PostKey key, Long viewerId) {
+        version.add(key.getId()).add(key.getUpdatedAt()).add(key.getLikeCount()).add(key.getCommentCount())
+                .add(key.getUserUpdatedAt());
+        if (likeBuffer.isEnabled()) {
+            version.add(likeBuffer.pendingDelta(key.getId())).add(likeBuffer.pendingState(key.getId(), viewerId));
+        }
+    }
+
+    private static ResourceVersion addSummary(ResourceVersion version, VersionSummary summary) {
+        return version.add(summary.getCount()).add(summary.getLastModified()).add(summary.getUserLastModified())
+                .add(summary.getCounterSum());
+    }
+}
@@ -0,0 +1,355 @@
+package com.useronboarding.platform.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import jakarta.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.useronboarding.platform.cache.LocalCache;
+import com.useronboarding.platform.metrics.MetricsRegistry;
+import com.useronboarding.platform.model.Post;
+import com.useronboarding.platform.repository.PostKey;
+import com.useronboarding.platform.repository.PostRepository;
+
+// Hot timelines held in process as PostIdRings: the global feed, rebuilt at startup, plus the
+// per-author and per-viewer home rings of recently active users, loaded on first use. A page is cut
+// from the rings and hydrated with one query by primary key; when a ring cannot answer (the page
+// runs past what it holds) the page methods return null and callers use their SQL path.
+// Rings only see writes made through this process, which is why the index is off by default: enable
+// it only when a single instance serves all writes.
+// Writes that land while a ring is being read from SQL are captured and replayed onto it before it
+// is published, so a post committed just after the SELECT is not lost until the next reload.
+@Component
+public class TimelineIndex {
+    private static final Logger logger = LoggerFactory.getLogger(TimelineIndex.class);
+
+    private static final String SELECT_GLOBAL = "SELECT id, created_at FROM posts "
+            + "ORDER BY created_at DESC, id DESC LIMIT :limit";
+    private static final String SELECT_AUTHOR = "SELECT id, created_at FROM posts WHERE user_id = :userId "
+            + "ORDER BY created_at DESC, id DESC LIMIT :limit";
+    private static final String SELECT_HOME = "SELECT post_id, created_at FROM timeline_entries WHERE user_id = :userId "
+            + "ORDER BY created_at DESC, post_id DESC LIMIT :limit";
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private MetricsRegistry metricsRegistry;
+
+    @Value("${app.timeline.index.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.timeline.index.global-size:10000}")
+    private int globalSize;
+
+    @Value("${app.timeline.index.per-user-size:200}")
+    private int perUserSize;
+
+    @Value("${app.timeline.index.max-users:10000}")
+    private int maxUsers;
+
+    @Value("${app.timeline.index.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private volatile PostIdRing global;
+    private volatile long globalBuiltAt;
+    private volatile Capture globalLoad;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private LocalCache<Long, PostIdRing> authors;
+    private LocalCache<Long, PostIdRing> homes;
+    private final Map<Long, Capture> authorLoads = new ConcurrentHashMap<>();
+    private final Map<Long, Capture> homeLoads = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        authors = new LocalCache<>(maxUsers, Duration.ofSeconds(ttlSeconds));
+        metricsRegistry.registerCache("timelineAuthors", authors);
+        homes = new LocalCache<>(maxUsers, Duration.ofSeconds(ttlSeconds));
+        metricsRegistry.registerCache("timelineHomes", homes);
+    }
+
+    // Until this has run, global pages come from SQL
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        Capture capture = new Capture();
+        globalLoad = capture;
+        try {
+            PostIdRing ring = load(SELECT_GLOBAL, new MapSqlParameterSource(), globalSize);
+            capture.publish(ring, () -> {
+                global = ring;
+                globalBuiltAt = System.currentTimeMillis();
+            });
+            logger.info("Timeline index rebuilt with the newest {} posts", ring.size());
+        } finally {
+            globalLoad = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void postCreated(Post post) {
+        if (!enabled) {
+            return;
+        }
+        long id = post.getId();
+        long time = post.getCreatedAt().getTime();
+        Capture capture = globalLoad;
+        if (capture != null) {
+            capture.record(id, time, false);
+        }
+        PostIdRing ring = global;
+        if (ring != null) {
+            ring.add(id, time);
+        }
+        // Authors and viewers whose rings are not loaded pick the post up from the database later
+        apply(authors, authorLoads, post.getUser().getId(), id, time);
+    }
+
+    // Called by the fan-out once a batch of timeline entries is committed
+    void delivered(List<Long> followerIds, long postId, long time) {
+        if (!enabled) {
+            return;
+        }
+        for (Long followerId : followerIds) {
+            apply(homes, homeLoads, followerId, postId, time);
+        }
+    }
+
+    // Author and home rings drop the post when a page finds it missing, which saves scanning them all here
+    public void postDeleted(long postId) {
+        Capture capture = globalLoad;
+        if (capture != null) {
+            capture.record(postId, 0, true);
+        }
+        PostIdRing ring = global;
+        if (ring != null) {
+            ring.remove(postId);
+        }
+    }
+
+    // Follows and unfollows rewrite a viewer's entries; the ring is reloaded after the change commits
+    void invalidateHome(Long userId) {
+        discardHome(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    discardHome(userId);
+                }
+            });
+        }
+    }
+
+    // A load still running may have read the old entries, so it must not publish its ring either
+    private void discardHome(Long userId) {
+        Capture capture = homeLoads.get(userId);
+        if (capture != null) {
+            capture.discard();
+        }
+        homes.invalidate(userId);
+    }
+
+    FeedRenderer.Page globalPage(KeysetCursor cursor, int pageSize) {
+        PostIdRing ring = enabled ? currentGlobal() : null;
+        if (ring == null) {
+            return null;
+        }
+        int limit = pageSize + 1;
+        long[] ids = page(ring, cursor, limit);
+        if (ids == null) {
+            metricsRegistry.counter("timeline.index.fallbacks").increment();
+            return null;
+        }
+        List<Long> candidates = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            candidates.add(id);
+        }
+        List<PostKey> keys = hydrate(candidates, List.of(ring));
+        metricsRegistry.counter("timeline.index.hits").increment();
+        return toPage(keys, pageSize, ids.length == limit);
+    }
+
+    // The viewer's pushed entries merged with the rings of the authors read at merge time
+    FeedRenderer.Page homePage(Long viewerId, List<Long> pulledAuthors, KeysetCursor cursor, int pageSize) {
+        if (!enabled) {
+            return null;
+        }
+        int limit = pageSize + 1;
+        List<PostIdRing> rings = new ArrayList<>(pulledAuthors.size() + 1);
+        rings.add(ring(homes, homeLoads, viewerId, SELECT_HOME));
+        for (Long authorId : pulledAuthors) {
+            rings.add(ring(authors, authorLoads, authorId, SELECT_AUTHOR));
+        }
+
+        Set<Long> candidates = new LinkedHashSet<>();
+        boolean hasMore = false;
+        for (PostIdRing ring : rings) {
+            long[] ids = page(ring, cursor, limit);
+            if (ids == null) {
+                metricsRegistry.counter("timeline.index.fallbacks").increment();
+                return null;
+            }
+            hasMore |= ids.length == limit;
+            for (long id : ids) {
+                candidates.add(id);
+            }
+        }
+        List<PostKey> keys = hydrate(new ArrayList<>(candidates), rings);
+        metricsRegistry.counter("timeline.index.hits").increment();
+        return toPage(keys, pageSize, hasMore);
+    }
+
+    private PostIdRing currentGlobal() {
+        PostIdRing ring = global;
+        // One request rebuilds a stale ring while the others keep reading the old one
+        if (ring != null && System.currentTimeMillis() - globalBuiltAt > ttlSeconds * 1000
+                && rebuilding.compareAndSet(false, true)) {
+            try {
+                rebuild();
+                ring = global;
+            } finally {
+                rebuilding.set(false);
+            }
+        }
+        return ring;
+    }
+
+    // The cached ring, or one read from SQL and published once the writes captured meanwhile are applied.
+    // When another request is already loading it, this one reads its own copy and leaves publishing to it.
+    private PostIdRing ring(LocalCache<Long, PostIdRing> cache, Map<Long, Capture> loads, Long userId, String sql) {
+        PostIdRing ring = cache.get(userId);
+        if (ring != null) {
+            return ring;
+        }
+        Capture capture = new Capture();
+        if (loads.putIfAbsent(userId, capture) != null) {
+            return load(sql, new MapSqlParameterSource("userId", userId), perUserSize);
+        }
+        try {
+            PostIdRing loaded = load(sql, new MapSqlParameterSource("userId", userId), perUserSize);
+            capture.publish(loaded, () -> cache.put(userId, loaded));
+            return loaded;
+        } finally {
+            loads.remove(userId, capture);
+        }
+    }
+
+    // The capture is checked before the cache: once it is closed the ring is already in the cache
+    private static void apply(LocalCache<Long, PostIdRing> cache, Map<Long, Capture> loads, Long userId, long id, long time) {
+        Capture capture = loads.get(userId);
+        if (capture != null) {
+            capture.record(id, time, false);
+        }
+        PostIdRing ring = cache.get(userId);
+        if (ring != null) {
+            ring.add(id, time);
+        }
+    }
+
+    private static long[] page(PostIdRing ring, KeysetCursor cursor, int limit) {
+        return cursor == null
+                ? ring.page(Long.MAX_VALUE, Long.MAX_VALUE, limit)
+                : ring.page(cursor.getCreatedAt().getTime(), cursor.getId(), limit);
+    }
+
+    // One primary-key lookup for the whole page; ids that no longer resolve were deleted and leave the rings
+    private List<PostKey> hydrate(List<Long> ids, List<PostIdRing> rings) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<PostKey> keys = new ArrayList<>(postRepository.findKeysByIdIn(ids));
+        if (keys.size() < ids.size()) {
+            Set<Long> found = new HashSet<>();
+            for (PostKey key : keys) {
+                found.add(key.getId());
+            }
+            for (Long id : ids) {
+                if (!found.contains(id)) {
+                    for (PostIdRing ring : rings) {
+                        ring.remove(id);
+                    }
+                }
+            }
+        }
+        keys.sort(TimelineService.NEWEST_FIRST);
+        return keys;
+    }
+
+    private static FeedRenderer.Page toPage(List<PostKey> keys, int pageSize, boolean hasMore) {
+        boolean more = hasMore || keys.size() > pageSize;
+        return new FeedRenderer.Page(keys.size() > pageSize ? keys.subList(0, pageSize) : keys, more);
+    }
+
+    // Rows go straight into primitive arrays; one extra row tells whether the ring holds the whole timeline
+    private PostIdRing load(String sql, MapSqlParameterSource params, int capacity) {
+        long[] ids = new long[capacity + 1];
+        long[] times = new long[capacity + 1];
+        int[] count = new int[1];
+        jdbcTemplate.query(sql, params.addValue("limit", capacity + 1), rs -> {
+            ids[count[0]] = rs.getLong(1);
+            times[count[0]] = rs.getTimestamp(2).getTime();
+            count[0]++;
+        });
+        return PostIdRing.of(ids, times, count[0], capacity, count[0] <= capacity);
+    }
+
+    // Writes seen while a ring is read from SQL. Recording and publishing share the capture's lock, so a
+    // write either lands here and is replayed, or comes after the ring is visible to the hooks.
+    private static final class Capture {
+        private final List<long[]> changes = new ArrayList<>();
+        private boolean closed;
+        private boolean discarded;
+
+        synchronized void record(long id, long time, boolean removed) {
+            if (!closed) {
+                changes.add(new long[] { id, time, removed ? 1 : 0 });
+            }
+        }
+
+        synchronized void discard() {
+            discarded = true;
+        }
+
+        // Replays onto the ring; an add already loaded from SQL is skipped by the ring's duplicate check
+        synchronized void publish(PostIdRing ring, Runnable publisher) {
+            for (long[] change : changes) {
+                if (change[2] == 1) {
+                    ring.remove(change[0]);
+                } else {
+                    ring.add(change[0], change[1]);
+                }
+            }
+            if (!discarded) {
+                publisher.run();
+            }
+            closed = true;
+        }
+    }
+}
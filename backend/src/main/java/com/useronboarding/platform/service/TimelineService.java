@@ -0,0 +1,403 @@
+package com.useronboarding.platform.service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.useronboarding.platform.metrics.MetricsRegistry;
+import com.useronboarding.platform.model.PendingFanout;
+import com.useronboarding.platform.model.Post;
+import com.useronboarding.platform.repository.FollowRepository;
+import com.useronboarding.platform.repository.PostKey;
+import com.useronboarding.platform.repository.PostRepository;
+import com.useronboarding.platform.repository.UserRepository;
+
+// Home timelines with hybrid fan-out. A new post is copied into each follower's timeline_entries
+// unless its author has at least fanout-threshold followers; posts by such authors, and the viewer's
+// own, are merged in at read time instead. Either way a page is two bounded index range reads.
+// Each fan-out is recorded in pending_fanouts with its post and deleted when done, so work lost to a
+// crash or a failed batch is picked up again by a periodic sweep that also runs at startup.
+@Service
+public class TimelineService {
+    private static final Logger logger = LoggerFactory.getLogger(TimelineService.class);
+
+    private static final String INSERT_ENTRY = "INSERT IGNORE INTO timeline_entries (user_id, post_id, author_id, created_at) "
+            + "VALUES (:userId, :postId, :authorId, :createdAt)";
+    private static final String BACKFILL_AUTHOR = "INSERT IGNORE INTO timeline_entries (user_id, post_id, author_id, created_at) "
+            + "SELECT :userId, id, user_id, created_at FROM posts WHERE user_id = :authorId "
+            + "ORDER BY created_at DESC, id DESC LIMIT :limit";
+    private static final String DELETE_AUTHOR_ENTRIES = "DELETE FROM timeline_entries WHERE user_id = :userId AND author_id = :authorId";
+    private static final String DELETE_POST_ENTRIES = "DELETE FROM timeline_entries WHERE post_id = :postId LIMIT :limit";
+    private static final String SELECT_TRIM_CUTOFF = "SELECT created_at, post_id FROM timeline_entries WHERE user_id = :userId "
+            + "ORDER BY created_at DESC, post_id DESC LIMIT 1 OFFSET :offset";
+    private static final String DELETE_OLDER_ENTRIES = "DELETE FROM timeline_entries WHERE user_id = :userId "
+            + "AND (created_at < :createdAt OR (created_at = :createdAt AND post_id < :postId))";
+    private static final String INSERT_PENDING = "INSERT INTO pending_fanouts (post_id, author_id, created_at, delivered_through, enqueued_at) "
+            + "VALUES (:postId, :authorId, :createdAt, :deliveredThrough, :enqueuedAt)";
+    private static final String ENQUEUE_AUTHOR = "INSERT IGNORE INTO pending_fanouts (post_id, author_id, created_at, delivered_through, enqueued_at) "
+            + "SELECT id, user_id, created_at, 0, :enqueuedAt FROM posts WHERE user_id = :authorId "
+            + "ORDER BY created_at DESC, id DESC LIMIT :limit";
+    private static final String SELECT_PENDING = "SELECT post_id, author_id, created_at, delivered_through, enqueued_at "
+            + "FROM pending_fanouts WHERE enqueued_at < :cutoff ORDER BY post_id LIMIT :limit";
+    private static final String SELECT_PENDING_BY_AUTHOR = "SELECT post_id, author_id, created_at, delivered_through, enqueued_at "
+            + "FROM pending_fanouts WHERE author_id = :authorId";
+    private static final String UPDATE_PENDING = "UPDATE pending_fanouts SET delivered_through = :deliveredThrough WHERE post_id = :postId";
+    private static final String DELETE_PENDING = "DELETE FROM pending_fanouts WHERE post_id = :postId";
+    private static final String SELECT_PAGE_FIRST = "SELECT post_id FROM timeline_entries WHERE user_id = :userId "
+            + "ORDER BY created_at DESC, post_id DESC LIMIT :limit";
+    private static final String SELECT_PAGE_AFTER = "SELECT post_id FROM timeline_entries WHERE user_id = :userId "
+            + "AND (created_at < :createdAt OR (created_at = :createdAt AND post_id < :postId)) "
+            + "ORDER BY created_at DESC, post_id DESC LIMIT :limit";
+
+    static final Comparator<PostKey> NEWEST_FIRST = Comparator.comparing(PostKey::getCreatedAt)
+            .thenComparing(PostKey::getId).reversed();
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private FollowRepository followRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MetricsRegistry metricsRegistry;
+
+    @Autowired
+    private TimelineIndex timelineIndex;
+
+    @Value("${app.timeline.fanout-threshold:10000}")
+    private long fanoutThreshold;
+
+    @Value("${app.timeline.max-length:500}")
+    private int maxLength;
+
+    @Value("${app.timeline.trim-slack:100}")
+    private int trimSlack;
+
+    @Value("${app.timeline.fanout-batch-size:1000}")
+    private int fanoutBatchSize;
+
+    @Value("${app.timeline.backfill-size:50}")
+    private int backfillSize;
+
+    @Value("${app.timeline.fanout-threads:1}")
+    private int fanoutThreads;
+
+    @Value("${app.timeline.fanout-retry-interval-ms:60000}")
+    private long fanoutRetryIntervalMs;
+
+    private TransactionTemplate transactionTemplate;
+    private ExecutorService executor;
+    private ScheduledExecutorService retrier;
+    // Posts queued or running here, so the sweep does not hand the same fan-out out twice
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void start() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(fanoutThreads, runnable -> {
+            Thread thread = new Thread(runnable, "timeline-fanout-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        retrier = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "timeline-fanout-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        retrier.scheduleWithFixedDelay(this::retryPending, 0, fanoutRetryIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        retrier.shutdownNow();
+        executor.shutdown();
+        try {
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public long getFanoutThreshold() {
+        return fanoutThreshold;
+    }
+
+    // Saves the post together with its pending fan-out; the fan-out runs off the request thread once both commit
+    @Transactional
+    public void publish(Post post) {
+        postRepository.save(post);
+        PendingFanout pending = new PendingFanout(post.getId(), post.getUser().getId(),
+                new Timestamp(post.getCreatedAt().getTime()), 0L, new Timestamp(System.currentTimeMillis()));
+        jdbcTemplate.update(INSERT_PENDING, new MapSqlParameterSource("postId", pending.getPostId())
+                .addValue("authorId", pending.getAuthorId())
+                .addValue("createdAt", pending.getCreatedAt())
+                .addValue("deliveredThrough", pending.getDeliveredThrough())
+                .addValue("enqueuedAt", pending.getEnqueuedAt()));
+        afterCommit(() -> {
+            timelineIndex.postCreated(post);
+            submit(pending);
+        });
+    }
+
+    // Runs in the deletion transaction; a fan-out already running may still add a few entries, which reads skip
+    public void cancelFanout(Long postId) {
+        jdbcTemplate.update(DELETE_PENDING, new MapSqlParameterSource("postId", postId));
+    }
+
+    // Entries of a post that is being deleted; a fan-out still running may add a few more, which reads skip
+    public int deletePostEntries(Long postId, int limit) {
+        return jdbcTemplate.update(DELETE_POST_ENTRIES, new MapSqlParameterSource("postId", postId).addValue("limit", limit));
+    }
+
+    // Runs inside the follow transaction; authors above the threshold are read-merged and need no entries
+    void followed(Long followerId, Long authorId, long authorFollowers) {
+        timelineIndex.invalidateHome(followerId);
+        if (authorFollowers >= fanoutThreshold) {
+            return;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("userId", followerId)
+                .addValue("authorId", authorId)
+                .addValue("limit", backfillSize);
+        if (jdbcTemplate.update(BACKFILL_AUTHOR, params) > 0) {
+            trim(followerId);
+        }
+    }
+
+    // Runs inside the unfollow transaction with the author's new follower count
+    void unfollowed(Long followerId, Long authorId, long authorFollowers) {
+        timelineIndex.invalidateHome(followerId);
+        jdbcTemplate.update(DELETE_AUTHOR_ENTRIES,
+                new MapSqlParameterSource("userId", followerId).addValue("authorId", authorId));
+        if (authorFollowers == fanoutThreshold - 1) {
+            // Until now the author was read-merged, so no follower has entries for their recent posts
+            enqueueAuthor(authorId);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public FeedRenderer.Page findHomePage(Long viewerId, KeysetCursor cursor, int pageSize) {
+        List<Long> pulledAuthors = new ArrayList<>(followRepository.findFolloweeIdsWithFollowersAtLeast(viewerId,
+                fanoutThreshold));
+        pulledAuthors.add(viewerId);
+
+        FeedRenderer.Page indexed = timelineIndex.homePage(viewerId, pulledAuthors, cursor, pageSize);
+        if (indexed != null) {
+            return indexed;
+        }
+
+        int limit = pageSize + 1;
+        MapSqlParameterSource params = new MapSqlParameterSource("userId", viewerId).addValue("limit", limit);
+        if (cursor != null) {
+            params.addValue("createdAt", new Timestamp(cursor.getCreatedAt().getTime())).addValue("postId", cursor.getId());
+        }
+        List<Long> pushedIds = jdbcTemplate.queryForList(cursor == null ? SELECT_PAGE_FIRST : SELECT_PAGE_AFTER,
+                params, Long.class);
+
+        PageRequest page = PageRequest.of(0, limit);
+        List<PostKey> pulled = cursor == null
+                ? postRepository.findKeysByUserIdsFirstPage(pulledAuthors, page)
+                : postRepository.findKeysByUserIdsAfter(pulledAuthors, cursor.getCreatedAt(), cursor.getId(), page);
+
+        List<PostKey> pushed = pushedIds.isEmpty() ? Collections.emptyList() : postRepository.findKeysByIdIn(pushedIds);
+
+        // An author who crossed the threshold can appear on both sides, so merge by id
+        Map<Long, PostKey> merged = new LinkedHashMap<>();
+        for (PostKey key : pushed) {
+            merged.put(key.getId(), key);
+        }
+        for (PostKey key : pulled) {
+            merged.putIfAbsent(key.getId(), key);
+        }
+        List<PostKey> keys = new ArrayList<>(merged.values());
+        keys.sort(NEWEST_FIRST);
+
+        // Entries of just-deleted posts drop out of the merge, so either side filling its limit also means more
+        boolean hasMore = keys.size() > pageSize || pushedIds.size() == limit || pulled.size() == limit;
+        return new FeedRenderer.Page(keys.size() > pageSize ? keys.subList(0, pageSize) : keys, hasMore);
+    }
+
+    // Hands fan-outs left behind by a crash or a failure back to the workers
+    void retryPending() {
+        try {
+            MapSqlParameterSource params = new MapSqlParameterSource("limit", fanoutBatchSize)
+                    .addValue("cutoff", new Timestamp(System.currentTimeMillis() - fanoutRetryIntervalMs));
+            List<PendingFanout> pending = jdbcTemplate.query(SELECT_PENDING, params, TimelineService::mapPending);
+            int submitted = 0;
+            for (PendingFanout fanout : pending) {
+                if (submit(fanout)) {
+                    submitted++;
+                }
+            }
+            if (submitted > 0) {
+                metricsRegistry.counter("timeline.fanout.retried").add(submitted);
+                logger.info("Retrying {} pending timeline fan-outs", submitted);
+            }
+        } catch (Exception e) {
+            logger.error("Looking up pending timeline fan-outs failed", e);
+        }
+    }
+
+    private void enqueueAuthor(Long authorId) {
+        jdbcTemplate.update(ENQUEUE_AUTHOR, new MapSqlParameterSource("authorId", authorId)
+                .addValue("limit", backfillSize)
+                .addValue("enqueuedAt", new Timestamp(System.currentTimeMillis())));
+        metricsRegistry.counter("timeline.backfill.authors").increment();
+        afterCommit(() -> {
+            for (PendingFanout fanout : jdbcTemplate.query(SELECT_PENDING_BY_AUTHOR,
+                    new MapSqlParameterSource("authorId", authorId), TimelineService::mapPending)) {
+                submit(fanout);
+            }
+        });
+    }
+
+    private boolean submit(PendingFanout fanout) {
+        if (!inFlight.add(fanout.getPostId())) {
+            return false;
+        }
+        try {
+            executor.execute(() -> fanOut(fanout));
+            return true;
+        } catch (RejectedExecutionException e) {
+            // Shutting down; the row stays behind for the next start
+            inFlight.remove(fanout.getPostId());
+            return false;
+        }
+    }
+
+    void fanOut(PendingFanout fanout) {
+        Long postId = fanout.getPostId();
+        Long authorId = fanout.getAuthorId();
+        Timestamp createdAt = new Timestamp(fanout.getCreatedAt().getTime());
+        MapSqlParameterSource pendingParams = new MapSqlParameterSource("postId", postId);
+        long started = System.nanoTime();
+        try {
+            long followers = userRepository.findFollowerCount(authorId).orElse(0L);
+            if (followers >= fanoutThreshold) {
+                metricsRegistry.counter("timeline.fanout.skipped").increment();
+                jdbcTemplate.update(DELETE_PENDING, pendingParams);
+                return;
+            }
+            long delivered = 0;
+            Long afterId = fanout.getDeliveredThrough();
+            List<Long> batch;
+            do {
+                batch = followRepository.findFollowerIdsAfter(authorId, afterId, PageRequest.of(0, fanoutBatchSize));
+                if (!batch.isEmpty()) {
+                    List<Long> followerIds = batch;
+                    Long lastId = batch.get(batch.size() - 1);
+                    // Progress commits with the batch, so a retry starts after the last follower served
+                    transactionTemplate.executeWithoutResult(status -> {
+                        deliver(followerIds, postId, authorId, createdAt);
+                        jdbcTemplate.update(UPDATE_PENDING, new MapSqlParameterSource("postId", postId)
+                                .addValue("deliveredThrough", lastId));
+                    });
+                    timelineIndex.delivered(followerIds, postId, createdAt.getTime());
+                    delivered += batch.size();
+                    afterId = lastId;
+                }
+            } while (batch.size() == fanoutBatchSize);
+            jdbcTemplate.update(DELETE_PENDING, pendingParams);
+            metricsRegistry.counter("timeline.fanout.entries").add(delivered);
+            metricsRegistry.timer("timeline.fanout").record(System.nanoTime() - started);
+        } catch (Exception e) {
+            metricsRegistry.counter("timeline.fanout.failed").increment();
+            logger.error("Timeline fan-out of post {} failed; it stays pending for a retry", postId, e);
+        } finally {
+            inFlight.remove(postId);
+        }
+    }
+
+    private void deliver(List<Long> followerIds, Long postId, Long authorId, Timestamp createdAt) {
+        MapSqlParameterSource[] rows = new MapSqlParameterSource[followerIds.size()];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = new MapSqlParameterSource("userId", followerIds.get(i))
+                    .addValue("postId", postId)
+                    .addValue("authorId", authorId)
+                    .addValue("createdAt", createdAt);
+        }
+        jdbcTemplate.batchUpdate(INSERT_ENTRY, rows);
+
+        // Each delivery trims with probability 1/trim-slack, so a timeline is cut back to max-length about
+        // once every trim-slack posts and never needs a per-delivery count
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (Long followerId : followerIds) {
+            if (random.nextInt(Math.max(1, trimSlack)) == 0) {
+                trim(followerId);
+            }
+        }
+    }
+
+    private void trim(Long userId) {
+        MapSqlParameterSource params = new MapSqlParameterSource("userId", userId).addValue("offset", maxLength - 1);
+        List<Map<String, Object>> cutoff = jdbcTemplate.queryForList(SELECT_TRIM_CUTOFF, params);
+        if (cutoff.isEmpty()) {
+            return;
+        }
+        Map<String, Object> oldestKept = cutoff.get(0);
+        params.addValue("createdAt", oldestKept.get("created_at")).addValue("postId", oldestKept.get("post_id"));
+        int trimmed = jdbcTemplate.update(DELETE_OLDER_ENTRIES, params);
+        if (trimmed > 0) {
+            metricsRegistry.counter("timeline.trimmed").add(trimmed);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static PendingFanout mapPending(ResultSet rs, int rowNum) throws SQLException {
+        return new PendingFanout(rs.getLong("post_id"), rs.getLong("author_id"), rs.getTimestamp("created_at"),
+                rs.getLong("delivered_through"), rs.getTimestamp("enqueued_at"));
+    }
+}
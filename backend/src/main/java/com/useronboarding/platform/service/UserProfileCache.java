@@ -0,0 +1,82 @@
+package com.useronboarding.platform.service;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import jakarta.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.useronboarding.platform.cache.LocalCache;
+import com.useronboarding.platform.cache.SharedCacheTier;
+import com.useronboarding.platform.cache.TieredCache;
+import com.useronboarding.platform.metrics.MetricsRegistry;
+import com.useronboarding.platform.model.User;
+import com.useronboarding.platform.repository.UserRepository;
+
+// Public profile responses by user id; UserProfileCacheListener evicts on every User update
+@Component
+public class UserProfileCache {
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MetricsRegistry metricsRegistry;
+
+    @Autowired(required = false)
+    private SharedCacheTier sharedCacheTier;
+
+    @Value("${app.cache.profiles.max-size:10000}")
+    private int maxSize;
+
+    @Value("${app.cache.profiles.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Value("${app.cache.profiles.shared-ttl-seconds:600}")
+    private long sharedTtlSeconds;
+
+    private TieredCache<Long, Map<String, Object>> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = new TieredCache<>("profiles", new LocalCache<>(maxSize, Duration.ofSeconds(ttlSeconds)),
+                sharedCacheTier, Duration.ofSeconds(sharedTtlSeconds));
+        metricsRegistry.registerCache("profiles", cache);
+    }
+
+    public Map<String, Object> get(Long id) {
+        return cache.get(id, key -> userRepository.findById(key).map(UserProfileCache::toProfile).orElse(null));
+    }
+
+    public void invalidate(Long id) {
+        cache.invalidate(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(id);
+                }
+            });
+        }
+    }
+
+    private static Map<String, Object> toProfile(User user) {
+        Map<String, Object> profile = new HashMap<>();
+        profile.put("id", user.getId());
+        profile.put("username", user.getUsername());
+        profile.put("email", user.getEmail());
+        profile.put("bio", user.getBio());
+        profile.put("profilePicture", user.getProfilePicture());
+        profile.put("joinDate", user.getJoinDate());
+        profile.put("followerCount", user.getFollowerCount());
+        profile.put("followingCount", user.getFollowingCount());
+        profile.put("version", user.getVersion());
+        return Collections.unmodifiableMap(profile);
+    }
+}
@@ -0,0 +1,22 @@
+package com.useronboarding.platform.service;
+
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.useronboarding.platform.model.User;
+
+// Created by Hibernate through Spring's bean container while the EntityManagerFactory starts. The cache
+// depends on repositories that need that factory, so it is looked up on first use rather than injected.
+public class UserProfileCacheListener {
+    @Autowired
+    private ObjectProvider<UserProfileCache> userProfileCache;
+
+    @PostUpdate
+    @PostRemove
+    public void evict(User user) {
+        userProfileCache.getObject().invalidate(user.getId());
+    }
+}
@@ -0,0 +1,67 @@
+package com.useronboarding.platform.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class FrequencySketchTest {
+
+    @Test
+    void unseenKeysHaveNoFrequency() {
+        FrequencySketch sketch = new FrequencySketch(64);
+
+        assertThat(sketch.frequency("never")).isZero();
+    }
+
+    @Test
+    void countsIncrementsPerKey() {
+        FrequencySketch sketch = new FrequencySketch(64);
+        for (int i = 0; i < 5; i++) {
+            sketch.increment("hot");
+        }
+        sketch.increment("cold");
+
+        assertThat(sketch.frequency("hot")).isEqualTo(5);
+        assertThat(sketch.frequency("cold")).isEqualTo(1);
+    }
+
+    @Test
+    void saturatesAtFifteen() {
+        FrequencySketch sketch = new FrequencySketch(1024);
+        for (int i = 0; i < 40; i++) {
+            sketch.increment(42L);
+        }
+
+        assertThat(sketch.frequency(42L)).isEqualTo(15);
+    }
+
+    @Test
+    void neverUnderestimatesWhileOtherKeysShareCounters() {
+        FrequencySketch sketch = new FrequencySketch(16);
+        for (int i = 0; i < 3; i++) {
+            sketch.increment("tracked");
+        }
+        // Far more keys than counters per row, so some collide with the tracked key
+        for (long key = 0; key < 100; key++) {
+            sketch.increment(key);
+        }
+
+        assertThat(sketch.frequency("tracked")).isGreaterThanOrEqualTo(3);
+    }
+
+    @Test
+    void halvesCountersOnceTheSampleFillsUp() {
+        // Sample size is ten times the maximum size (at least 16)
+        FrequencySketch sketch = new FrequencySketch(16);
+        for (int i = 0; i < 12; i++) {
+            sketch.increment("hot");
+        }
+        assertThat(sketch.frequency("hot")).isEqualTo(12);
+
+        for (long key = 0; key < 160; key++) {
+            sketch.increment(key);
+        }
+
+        assertThat(sketch.frequency("hot")).isBetween(6, 7);
+    }
+}
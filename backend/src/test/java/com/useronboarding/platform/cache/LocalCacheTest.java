@@ -0,0 +1,226 @@
+package com.useronboarding.platform.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class LocalCacheTest {
+
+    @Test
+    void storesAndInvalidatesValues() {
+        LocalCache<String, String> cache = new LocalCache<>(10, Duration.ofMinutes(1));
+        cache.put("a", "1");
+        cache.put("b", "2");
+
+        assertThat(cache.get("a")).isEqualTo("1");
+        cache.invalidate("a");
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.get("b")).isEqualTo("2");
+
+        cache.invalidateAll();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void replacesTheValueOfAnExistingKey() {
+        LocalCache<Integer, String> cache = new LocalCache<>(10, Duration.ofMinutes(1));
+        for (int key = 0; key < 5; key++) {
+            cache.put(key, "old");
+        }
+        for (int key = 0; key < 5; key++) {
+            cache.put(key, "new");
+        }
+
+        assertThat(cache.size()).isEqualTo(5);
+        for (int key = 0; key < 5; key++) {
+            assertThat(cache.get(key)).isEqualTo("new");
+        }
+    }
+
+    @Test
+    void rejectsNonPositiveSizes() {
+        assertThatThrownBy(() -> new LocalCache<>(0, Duration.ofMinutes(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void expiresEntriesAtTheirDeadline() {
+        LocalCache<String, String> cache = new LocalCache<>(10, Duration.ofMinutes(1));
+        cache.put("stale", "1", System.currentTimeMillis() - 1);
+        cache.put("fresh", "2", System.currentTimeMillis() + 60_000);
+
+        assertThat(cache.get("stale")).isNull();
+        assertThat(cache.get("fresh")).isEqualTo("2");
+        assertThat(cache.stats().getExpirations()).isEqualTo(1);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void expiresEntriesAfterTheTtl() throws InterruptedException {
+        LocalCache<String, String> cache = new LocalCache<>(10, Duration.ofMillis(20));
+        cache.put("a", "1");
+
+        Thread.sleep(50);
+
+        assertThat(cache.get("a")).isNull();
+    }
+
+    @Test
+    void zeroTtlNeverExpires() {
+        LocalCache<String, String> cache = new LocalCache<>(10, Duration.ZERO);
+        cache.put("a", "1");
+
+        assertThat(cache.get("a")).isEqualTo("1");
+    }
+
+    @Test
+    void loadsMissesAndCachesTheResult() {
+        LocalCache<Integer, String> cache = new LocalCache<>(10, Duration.ofMinutes(1));
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThat(cache.get(7, key -> "v" + key + "#" + loads.incrementAndGet())).isEqualTo("v7#1");
+        assertThat(cache.get(7, key -> "v" + key + "#" + loads.incrementAndGet())).isEqualTo("v7#1");
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void doesNotCacheNullLoads() {
+        LocalCache<Integer, String> cache = new LocalCache<>(10, Duration.ofMinutes(1));
+
+        assertThat(cache.get(1, key -> null)).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void countsHitsAndMisses() {
+        LocalCache<String, String> cache = new LocalCache<>(10, Duration.ofMinutes(1));
+        cache.put("a", "1");
+        cache.get("a");
+        cache.get("a");
+        cache.get("b");
+
+        CacheStats stats = cache.stats();
+        assertThat(stats.getHits()).isEqualTo(2);
+        assertThat(stats.getMisses()).isEqualTo(1);
+    }
+
+    @Test
+    void staysWithinItsMaximumSize() {
+        LocalCache<Integer, Integer> cache = new LocalCache<>(100, Duration.ofMinutes(1));
+        for (int key = 0; key < 1_000; key++) {
+            cache.put(key, key);
+        }
+
+        assertThat(cache.size()).isLessThanOrEqualTo(100);
+        assertThat(cache.stats().getEvictions()).isGreaterThanOrEqualTo(900);
+    }
+
+    @Test
+    void staysWithinItsMaximumSizeAcrossSegments() {
+        LocalCache<Integer, Integer> cache = new LocalCache<>(2_048, Duration.ofMinutes(1));
+        for (int key = 0; key < 20_000; key++) {
+            cache.put(key, key);
+        }
+
+        assertThat(cache.size()).isLessThanOrEqualTo(2_048);
+    }
+
+    @Test
+    void keepsFrequentlyReadEntriesThroughAScanOfOneOffKeys() {
+        LocalCache<String, String> cache = new LocalCache<>(100, Duration.ofMinutes(1));
+        for (int i = 0; i < 50; i++) {
+            cache.put("hot" + i, "v");
+        }
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 50; i++) {
+                cache.get("hot" + i);
+            }
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            cache.put("scan" + i, "v");
+        }
+
+        for (int i = 0; i < 50; i++) {
+            assertThat(cache.get("hot" + i)).as("hot%d", i).isNotNull();
+        }
+    }
+
+    @Test
+    void admitsANewKeyRequestedMoreOftenThanTheVictim() {
+        LocalCache<String, String> cache = new LocalCache<>(10, Duration.ofMinutes(1));
+        for (int i = 0; i < 10; i++) {
+            cache.put("cold" + i, "v");
+        }
+        // Misses still count towards the key's frequency
+        for (int i = 0; i < 5; i++) {
+            cache.get("wanted");
+        }
+        cache.put("wanted", "v");
+        // Pushes "wanted" out of the admission window into the main region
+        cache.put("next", "v");
+
+        assertThat(cache.get("wanted")).isEqualTo("v");
+        assertThat(cache.size()).isLessThanOrEqualTo(10);
+    }
+
+    @Test
+    void rejectsANewKeyNoMoreFrequentThanTheVictim() {
+        LocalCache<String, String> cache = new LocalCache<>(10, Duration.ofMinutes(1));
+        for (int i = 0; i < 10; i++) {
+            cache.put("resident" + i, "v");
+        }
+        for (int i = 0; i < 9; i++) {
+            cache.get("resident" + i);
+        }
+
+        cache.put("oneOff", "v");
+        cache.put("another", "v");
+
+        assertThat(cache.get("oneOff")).isNull();
+        for (int i = 0; i < 9; i++) {
+            assertThat(cache.get("resident" + i)).isNotNull();
+        }
+    }
+
+    @Test
+    void survivesConcurrentReadersAndWriters() throws Exception {
+        LocalCache<Integer, Integer> cache = new LocalCache<>(1_024, Duration.ofMinutes(1));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                futures.add(executor.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < 20_000; i++) {
+                        int key = random.nextInt(4_096);
+                        if (random.nextInt(4) == 0) {
+                            cache.put(key, key);
+                        } else {
+                            Integer value = cache.get(key);
+                            assertThat(value == null || value == key).isTrue();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(cache.size()).isLessThanOrEqualTo(1_024);
+    }
+}
@@ -0,0 +1,186 @@
+package com.useronboarding.platform.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.useronboarding.platform.dto.CommentDTO;
+import com.useronboarding.platform.exception.ResourceNotFoundException;
+import com.useronboarding.platform.model.Comment;
+import com.useronboarding.platform.repository.CommentRepository;
+import com.useronboarding.platform.repository.PostRepository;
+
+class CommentThreadServiceTest {
+    private static final long POST_ID = 1L;
+    // Every comment in the fake thread has this many replies
+    private static final int FAN_OUT = 1_000;
+
+    private CommentRepository commentRepository;
+    private CommentThreadService service;
+    private final Map<Long, Comment> comments = new HashMap<>();
+    private long nextId = 1;
+
+    @BeforeEach
+    void setUp() {
+        commentRepository = mock(CommentRepository.class);
+        PostRepository postRepository = mock(PostRepository.class);
+        when(postRepository.existsById(POST_ID)).thenReturn(true);
+
+        when(commentRepository.findTopLevelByPostId(eq(POST_ID), any(Pageable.class))).thenAnswer(invocation -> {
+            Pageable page = invocation.getArgument(1);
+            List<Comment> roots = new ArrayList<>();
+            for (int i = 0; i < page.getPageSize(); i++) {
+                roots.add(comment(null));
+            }
+            return roots;
+        });
+        // Hands out replies round-robin across the parents, the order the ranking query produces
+        when(commentRepository.findFirstReplyIds(anyCollection(), anyInt())).thenAnswer(invocation -> {
+            List<Long> parentIds = new ArrayList<>(invocation.<Collection<Long>>getArgument(0));
+            int limit = invocation.getArgument(1);
+            List<Long> ids = new ArrayList<>();
+            for (int position = 0; position < FAN_OUT && ids.size() < limit; position++) {
+                for (int i = 0; i < parentIds.size() && ids.size() < limit; i++) {
+                    ids.add(comment(comments.get(parentIds.get(i))).getId());
+                }
+            }
+            return ids;
+        });
+        when(commentRepository.findWithUserByIdIn(anyCollection())).thenAnswer(invocation -> {
+            List<Comment> found = new ArrayList<>();
+            for (Long id : invocation.<Collection<Long>>getArgument(0)) {
+                found.add(comments.get(id));
+            }
+            return found;
+        });
+
+        service = new CommentThreadService();
+        ReflectionTestUtils.setField(service, "commentRepository", commentRepository);
+        ReflectionTestUtils.setField(service, "postRepository", postRepository);
+        ReflectionTestUtils.setField(service, "defaultDepth", 3);
+        ReflectionTestUtils.setField(service, "maxDepth", 10);
+        ReflectionTestUtils.setField(service, "defaultPerLevel", 20);
+        ReflectionTestUtils.setField(service, "maxPerLevel", 100);
+        ReflectionTestUtils.setField(service, "maxThreadNodes", 500);
+        ReflectionTestUtils.setField(service, "maxSubtreeNodes", 500);
+    }
+
+    @Test
+    void capsEachLevelAtThePerLevelLimit() {
+        List<CommentDTO> thread = service.loadThread(POST_ID, 3, 10, null);
+
+        assertThat(thread).hasSize(10);
+        assertThat(countNodes(thread)).isEqualTo(30);
+        // Ten replies spread over ten parents, not ten per parent
+        for (CommentDTO root : thread) {
+            assertThat(root.getReplies()).hasSize(1);
+            assertThat(root.isHasMoreReplies()).isTrue();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void neverAsksForMoreThanOneLevelOfParentsOrReplies() {
+        service.loadThread(POST_ID, 10, 100, null);
+
+        ArgumentCaptor<Collection<Long>> parentIds = ArgumentCaptor.forClass(Collection.class);
+        ArgumentCaptor<Integer> limits = ArgumentCaptor.forClass(Integer.class);
+        verify(commentRepository, atLeastOnce())
+                .findFirstReplyIds(parentIds.capture(), limits.capture());
+        assertThat(parentIds.getAllValues()).allSatisfy(ids -> assertThat(ids).hasSizeLessThanOrEqualTo(100));
+        assertThat(limits.getAllValues()).allSatisfy(limit -> assertThat(limit).isLessThanOrEqualTo(100));
+    }
+
+    @Test
+    void stopsAtTheWholeRequestNodeBudget() {
+        List<CommentDTO> thread = service.loadThread(POST_ID, 10, 100, null);
+
+        // Ten levels of a hundred would be a thousand nodes
+        assertThat(countNodes(thread)).isEqualTo(500);
+        verify(commentRepository, times(4)).findFirstReplyIds(anyCollection(), anyInt());
+    }
+
+    @Test
+    void shrinksTheLastLevelToTheRemainingBudget() {
+        ReflectionTestUtils.setField(service, "maxThreadNodes", 150);
+
+        List<CommentDTO> thread = service.loadThread(POST_ID, 10, 100, null);
+
+        assertThat(countNodes(thread)).isEqualTo(150);
+        verify(commentRepository).findFirstReplyIds(anyCollection(), eq(50));
+    }
+
+    @Test
+    void budgetBelowThePerLevelLimitCapsTheTopLevel() {
+        ReflectionTestUtils.setField(service, "maxThreadNodes", 40);
+
+        List<CommentDTO> thread = service.loadThread(POST_ID, 5, 100, null);
+
+        assertThat(thread).hasSize(40);
+        verify(commentRepository, never()).findFirstReplyIds(anyCollection(), anyInt());
+    }
+
+    @Test
+    void loadsASubtreeRootedAtTheComment() {
+        Comment root = comment(null);
+        Comment reply = comment(root);
+        root.setPath(CommentPaths.child(null, root.getId()));
+        when(commentRepository.findPathById(root.getId())).thenReturn(Optional.of(root.getPath()));
+        when(commentRepository.findSubtree(eq(root.getPath() + "%"), any(Pageable.class))).thenReturn(List.of(root, reply));
+
+        CommentDTO subtree = service.loadSubtree(root.getId(), null, null);
+
+        assertThat(subtree.getId()).isEqualTo(root.getId());
+        assertThat(subtree.getReplies()).extracting(CommentDTO::getId).containsExactly(reply.getId());
+    }
+
+    @Test
+    void reportsACommentDeletedBeforeItsSubtreeLoadedAsNotFound() {
+        when(commentRepository.findPathById(42L)).thenReturn(Optional.of(CommentPaths.child(null, 42L)));
+        when(commentRepository.findSubtree(anyString(), any(Pageable.class))).thenReturn(List.of());
+
+        assertThatThrownBy(() -> service.loadSubtree(42L, null, null))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("Comment not found with id 42");
+    }
+
+    private Comment comment(Comment parent) {
+        Comment comment = new Comment();
+        comment.setId(nextId++);
+        comment.setParentComment(parent);
+        comment.setReplyCount(FAN_OUT);
+        comments.put(comment.getId(), comment);
+        return comment;
+    }
+
+    private static int countNodes(List<CommentDTO> thread) {
+        int count = 0;
+        for (CommentDTO comment : thread) {
+            count += 1 + countNodes(comment.getReplies());
+        }
+        return count;
+    }
+}
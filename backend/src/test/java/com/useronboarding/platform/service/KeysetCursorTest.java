@@ -0,0 +1,67 @@
+package com.useronboarding.platform.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+import org.junit.jupiter.api.Test;
+
+class KeysetCursorTest {
+
+    @Test
+    void roundTripsCreatedAtAndId() {
+        KeysetCursor cursor = new KeysetCursor(new Date(1_700_000_000_123L), 42L);
+
+        KeysetCursor decoded = KeysetCursor.decode(cursor.encode());
+
+        assertThat(decoded.getCreatedAt()).isEqualTo(new Date(1_700_000_000_123L));
+        assertThat(decoded.getId()).isEqualTo(42L);
+    }
+
+    @Test
+    void roundTripsExtremeValues() {
+        KeysetCursor decoded = KeysetCursor.decode(new KeysetCursor(Long.MIN_VALUE, Long.MAX_VALUE).encode());
+
+        assertThat(decoded.getCreatedAt().getTime()).isEqualTo(Long.MIN_VALUE);
+        assertThat(decoded.getId()).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void encodesAsUrlSafeBase64WithoutPadding() {
+        String encoded = new KeysetCursor(1L, 2L).encode();
+
+        assertThat(encoded).doesNotContain("=", "+", "/");
+        assertThat(new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.US_ASCII)).isEqualTo("1:2");
+    }
+
+    @Test
+    void rejectsInvalidBase64() {
+        assertThatThrownBy(() -> KeysetCursor.decode("not base64!"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+    }
+
+    @Test
+    void rejectsMissingSeparator() {
+        assertThatThrownBy(() -> KeysetCursor.decode(encode("12345")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+    }
+
+    @Test
+    void rejectsNonNumericParts() {
+        assertThatThrownBy(() -> KeysetCursor.decode(encode("abc:1")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+        assertThatThrownBy(() -> KeysetCursor.decode(encode("1:")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,264 @@
+package com.useronboarding.platform.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import com.useronboarding.platform.exception.ResourceNotFoundException;
+import com.useronboarding.platform.payload.response.LikeResponse;
+import com.useronboarding.platform.repository.PostRepository;
+
+class LikeBufferTest {
+
+    @TempDir
+    Path journalDir;
+
+    private PostRepository postRepository;
+    private JdbcTemplate jdbcTemplate;
+    private PostCache postCache;
+    private LikeBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        postRepository = mock(PostRepository.class);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        postCache = mock(PostCache.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+
+        when(postRepository.findLikeCount(1L)).thenReturn(Optional.of(10L));
+        when(postRepository.findLikeCount(2L)).thenReturn(Optional.of(0L));
+        when(postRepository.findLikeCount(99L)).thenReturn(Optional.empty());
+
+        buffer = new LikeBuffer();
+        ReflectionTestUtils.setField(buffer, "postRepository", postRepository);
+        ReflectionTestUtils.setField(buffer, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(buffer, "postCache", postCache);
+        ReflectionTestUtils.setField(buffer, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(buffer, "enabled", true);
+        // Flushes only run when a test asks for one
+        ReflectionTestUtils.setField(buffer, "flushIntervalMs", 3_600_000L);
+        ReflectionTestUtils.setField(buffer, "flushThreshold", 1_000);
+        ReflectionTestUtils.setField(buffer, "journalDir", journalDir.toString());
+        ReflectionTestUtils.setField(buffer, "journalFsync", false);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        buffer.stop();
+    }
+
+    @Test
+    void togglesAgainstThePersistedState() throws IOException {
+        buffer.start();
+
+        LikeResponse liked = buffer.toggle(1L, 100L);
+        assertThat(liked.isLiked()).isTrue();
+        assertThat(liked.getLikeCount()).isEqualTo(11);
+        assertThat(buffer.pendingDelta(1L)).isEqualTo(1);
+        assertThat(buffer.pendingState(1L, 100L)).isTrue();
+
+        LikeResponse unliked = buffer.toggle(1L, 100L);
+        assertThat(unliked.isLiked()).isFalse();
+        assertThat(unliked.getLikeCount()).isEqualTo(10);
+        assertThat(buffer.pendingDelta(1L)).isZero();
+        assertThat(buffer.pendingState(1L, 100L)).isFalse();
+    }
+
+    @Test
+    void unlikesAUserWhoAlreadyLikedThePost() throws IOException {
+        when(postRepository.countLike(1L, 100L)).thenReturn(1L);
+        buffer.start();
+
+        LikeResponse response = buffer.toggle(1L, 100L);
+
+        assertThat(response.isLiked()).isFalse();
+        assertThat(response.getLikeCount()).isEqualTo(9);
+        // Setting the state it already has changes nothing
+        assertThat(buffer.set(1L, 100L, false).getLikeCount()).isEqualTo(9);
+        assertThat(buffer.pendingDelta(1L)).isEqualTo(-1);
+    }
+
+    @Test
+    void readsTheDatabaseOncePerPostAndUserUntilAFlush() throws IOException {
+        buffer.start();
+
+        buffer.toggle(1L, 100L);
+        buffer.toggle(1L, 100L);
+        buffer.toggle(1L, 101L);
+
+        verify(postRepository, times(1)).findLikeCount(1L);
+        verify(postRepository, times(1)).countLike(1L, 100L);
+        verify(postRepository, times(1)).countLike(1L, 101L);
+    }
+
+    @Test
+    void rejectsUnknownPosts() throws IOException {
+        buffer.start();
+
+        assertThatThrownBy(() -> buffer.toggle(99L, 100L)).isInstanceOf(ResourceNotFoundException.class);
+        assertThat(buffer.pendingDelta(99L)).isZero();
+    }
+
+    @Test
+    void nothingIsPendingForUntouchedPosts() throws IOException {
+        buffer.start();
+
+        assertThat(buffer.pendingDelta(1L)).isZero();
+        assertThat(buffer.pendingState(1L, 100L)).isNull();
+        assertThat(buffer.pendingState(1L, null)).isNull();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flushMovesTheCounterByTheRowsChanged() throws IOException {
+        when(jdbcTemplate.update(startsWith("INSERT IGNORE"), any(Object[].class))).thenReturn(2);
+        buffer.start();
+        buffer.toggle(1L, 100L);
+        buffer.toggle(1L, 101L);
+
+        buffer.flush();
+
+        ArgumentCaptor<List<Object[]>> counters = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE posts SET like_count"), counters.capture());
+        assertThat(counters.getValue()).containsExactly(new Object[] { 2, 1L });
+        verify(postCache).invalidate(1L);
+        assertThat(buffer.pendingDelta(1L)).isZero();
+        assertThat(buffer.pendingState(1L, 100L)).isNull();
+
+        // The next click starts from the database again
+        buffer.toggle(1L, 102L);
+        verify(postRepository, times(2)).findLikeCount(1L);
+    }
+
+    @Test
+    void flushLeavesTheCounterAloneWhenNoRowsChanged() throws IOException {
+        // Another writer already stored the like, so the insert is ignored
+        when(jdbcTemplate.update(startsWith("INSERT IGNORE"), any(Object[].class))).thenReturn(0);
+        buffer.start();
+        buffer.toggle(1L, 100L);
+
+        buffer.flush();
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        assertThat(buffer.pendingDelta(1L)).isZero();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flushBumpsThePostWhenALikeAndAnUnlikeCancelOut() throws IOException {
+        when(postRepository.countLike(1L, 101L)).thenReturn(1L);
+        when(jdbcTemplate.update(startsWith("INSERT IGNORE"), any(Object[].class))).thenReturn(1);
+        when(jdbcTemplate.update(startsWith("DELETE FROM post_likes"), any(Object[].class))).thenReturn(1);
+        buffer.start();
+        buffer.toggle(1L, 100L);
+        buffer.toggle(1L, 101L);
+
+        buffer.flush();
+
+        // The count stays, but updated_at must still move because two users' liked state changed
+        ArgumentCaptor<List<Object[]>> counters = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE posts SET like_count"), counters.capture());
+        assertThat(counters.getValue()).containsExactly(new Object[] { 0, 1L });
+    }
+
+    @Test
+    void versionMovesWithEveryChangeToBufferedState() throws IOException {
+        buffer.start();
+        String initial = buffer.getVersion();
+
+        buffer.toggle(1L, 100L);
+        String afterLike = buffer.getVersion();
+        buffer.set(1L, 100L, true);
+        String afterNoOp = buffer.getVersion();
+        buffer.flush();
+        String afterFlush = buffer.getVersion();
+        buffer.toggle(2L, 200L);
+        String afterSecondLike = buffer.getVersion();
+        buffer.discard(2L);
+
+        assertThat(afterLike).isNotEqualTo(initial);
+        assertThat(afterNoOp).isEqualTo(afterLike);
+        assertThat(afterFlush).isNotEqualTo(afterLike);
+        assertThat(afterSecondLike).isNotEqualTo(afterFlush);
+        assertThat(buffer.getVersion()).isNotEqualTo(afterSecondLike);
+    }
+
+    @Test
+    void versionsOfDifferentInstancesNeverMatch() throws IOException {
+        buffer.start();
+
+        assertThat(new LikeBuffer().getVersion()).isNotEqualTo(buffer.getVersion());
+    }
+
+    @Test
+    void flushSkipsLikesToggledBackToTheirPersistedState() throws IOException {
+        buffer.start();
+        buffer.toggle(1L, 100L);
+        buffer.toggle(1L, 100L);
+
+        buffer.flush();
+
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void discardDropsBufferedChanges() throws IOException {
+        buffer.start();
+        buffer.toggle(2L, 200L);
+
+        buffer.discard(2L);
+        buffer.flush();
+
+        assertThat(buffer.pendingDelta(2L)).isZero();
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+
+    @Test
+    void replaysTheJournalOnStart() throws IOException {
+        LikeJournal journal = new LikeJournal(journalDir, false);
+        journal.open();
+        journal.append(1L, 100L, true);
+        journal.append(2L, 200L, false);
+        journal.close();
+        when(jdbcTemplate.update(startsWith("INSERT IGNORE"), any(Object[].class))).thenReturn(1);
+        // The unlike had already reached the database before the crash
+        when(jdbcTemplate.update(startsWith("DELETE FROM post_likes"), any(Object[].class))).thenReturn(0);
+
+        buffer.start();
+
+        verify(jdbcTemplate).update(startsWith("INSERT IGNORE"), eq(1L), eq(100L));
+        verify(jdbcTemplate).update(startsWith("DELETE FROM post_likes"), eq(2L), eq(200L));
+        verify(jdbcTemplate).update(startsWith("UPDATE posts SET like_count"), eq(1), eq(1L));
+        verify(jdbcTemplate, never()).update(startsWith("UPDATE posts SET like_count"), eq(-1), eq(2L));
+
+        // Replayed records are not applied a second time
+        buffer.stop();
+        assertThat(new LikeJournal(journalDir, false).open()).isEmpty();
+    }
+}
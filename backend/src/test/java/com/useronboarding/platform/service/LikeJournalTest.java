@@ -0,0 +1,156 @@
+package com.useronboarding.platform.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LikeJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void startsEmpty() throws IOException {
+        LikeJournal journal = new LikeJournal(directory.resolve("journal"), true);
+
+        assertThat(journal.open()).isEmpty();
+        journal.close();
+    }
+
+    @Test
+    void replaysSyncedRecordsInOrder() throws IOException {
+        LikeJournal journal = new LikeJournal(directory, true);
+        journal.open();
+        journal.append(1, 100, true);
+        journal.append(1, 101, true);
+        journal.sync(journal.append(1, 100, false));
+
+        List<LikeJournal.Record> records = new LikeJournal(directory, false).open();
+
+        assertThat(records)
+                .extracting(LikeJournal.Record::getPostId, LikeJournal.Record::getUserId, LikeJournal.Record::isLiked)
+                .containsExactly(tuple(1L, 100L, true), tuple(1L, 101L, true), tuple(1L, 100L, false));
+        journal.close();
+    }
+
+    @Test
+    void keepsQueuedRecordsOutOfTheFileUntilSynced() throws IOException {
+        LikeJournal journal = new LikeJournal(directory, false);
+        journal.open();
+        journal.sync(journal.append(1, 100, true));
+        journal.append(2, 200, true);
+
+        assertThat(new LikeJournal(directory, false).open()).hasSize(1);
+        journal.close();
+    }
+
+    @Test
+    void closeWritesQueuedRecords() throws IOException {
+        LikeJournal journal = new LikeJournal(directory, false);
+        journal.open();
+        journal.append(1, 100, true);
+        journal.close();
+
+        assertThat(new LikeJournal(directory, false).open())
+                .extracting(LikeJournal.Record::getUserId)
+                .containsExactly(100L);
+    }
+
+    @Test
+    void replaysAcrossSegmentsAndReopens() throws IOException {
+        LikeJournal journal = new LikeJournal(directory, false);
+        journal.open();
+        journal.sync(journal.append(1, 100, true));
+        journal.rotate();
+        journal.sync(journal.append(2, 200, true));
+        journal.close();
+
+        LikeJournal reopened = new LikeJournal(directory, false);
+        assertThat(reopened.open())
+                .extracting(LikeJournal.Record::getPostId)
+                .containsExactly(1L, 2L);
+        // New records go to a fresh segment after the replayed ones
+        reopened.sync(reopened.append(3, 300, false));
+        reopened.close();
+
+        assertThat(new LikeJournal(directory, false).open())
+                .extracting(LikeJournal.Record::getPostId)
+                .containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void deletesSegmentsThroughTheRotatedOne() throws IOException {
+        LikeJournal journal = new LikeJournal(directory, false);
+        journal.open();
+        journal.sync(journal.append(1, 100, true));
+        long closed = journal.rotate();
+        journal.sync(journal.append(2, 200, true));
+
+        journal.deleteThrough(closed);
+        journal.close();
+
+        assertThat(new LikeJournal(directory, false).open())
+                .extracting(LikeJournal.Record::getPostId)
+                .containsExactly(2L);
+    }
+
+    @Test
+    void skipsATornLastLine() throws IOException {
+        Files.writeString(directory.resolve("likes-00000000000000000001.log"), "1 100 1\n2 200 1\n3 30",
+                StandardCharsets.US_ASCII);
+
+        assertThat(new LikeJournal(directory, false).open())
+                .extracting(LikeJournal.Record::getPostId)
+                .containsExactly(1L, 2L);
+    }
+
+    @Test
+    void keepsEveryRecordFromConcurrentAppenders() throws Exception {
+        LikeJournal journal = new LikeJournal(directory, false);
+        journal.open();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                long postId = thread;
+                futures.add(executor.submit(() -> {
+                    for (long userId = 0; userId < 250; userId++) {
+                        journal.sync(journal.append(postId, userId, true));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<LikeJournal.Record> records = new LikeJournal(directory, false).open();
+        assertThat(records).hasSize(1_000);
+        for (long postId = 0; postId < 4; postId++) {
+            long expectedUser = 0;
+            // Each appender's own records stay in the order it wrote them
+            for (LikeJournal.Record record : records) {
+                if (record.getPostId() == postId) {
+                    assertThat(record.getUserId()).isEqualTo(expectedUser++);
+                }
+            }
+            assertThat(expectedUser).isEqualTo(250);
+        }
+        journal.close();
+    }
+}
@@ -0,0 +1,119 @@
+package com.useronboarding.platform.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class PostIdRingTest {
+    private static final long TOP = Long.MAX_VALUE;
+
+    @Test
+    void pagesNewestFirstFromLoadedEntries() {
+        PostIdRing ring = PostIdRing.of(new long[] { 3, 2, 1 }, new long[] { 30, 20, 10 }, 3, 5, true);
+
+        assertThat(ring.size()).isEqualTo(3);
+        assertThat(ring.page(TOP, TOP, 2)).containsExactly(3, 2);
+        assertThat(ring.page(20, 2, 2)).containsExactly(1);
+    }
+
+    @Test
+    void completeRingAnswersPastItsOldestEntry() {
+        PostIdRing ring = PostIdRing.of(new long[] { 2, 1 }, new long[] { 20, 10 }, 2, 5, true);
+
+        assertThat(ring.page(TOP, TOP, 10)).containsExactly(2, 1);
+        assertThat(ring.page(10, 1, 10)).isEmpty();
+    }
+
+    @Test
+    void incompleteRingRefusesPagesItCannotFill() {
+        // The source returned more rows than the ring keeps
+        PostIdRing ring = PostIdRing.of(new long[] { 3, 2, 1 }, new long[] { 30, 20, 10 }, 3, 2, true);
+
+        assertThat(ring.size()).isEqualTo(2);
+        assertThat(ring.page(TOP, TOP, 2)).containsExactly(3, 2);
+        assertThat(ring.page(TOP, TOP, 3)).isNull();
+        assertThat(ring.page(30, 3, 1)).containsExactly(2);
+        assertThat(ring.page(30, 3, 2)).isNull();
+    }
+
+    @Test
+    void wrapsAroundKeepingTheNewestEntries() {
+        PostIdRing ring = new PostIdRing(4);
+        for (long id = 1; id <= 11; id++) {
+            ring.add(id, id * 10);
+        }
+
+        assertThat(ring.size()).isEqualTo(4);
+        assertThat(ring.page(TOP, TOP, 4)).containsExactly(11, 10, 9, 8);
+        assertThat(ring.page(100, 10, 2)).containsExactly(9, 8);
+        // Older posts were overwritten, so running past the oldest slot is not an answer
+        assertThat(ring.page(80, 8, 1)).isNull();
+    }
+
+    @Test
+    void insertsLateArrivalsInOrderAcrossTheWrapPoint() {
+        PostIdRing ring = new PostIdRing(4);
+        ring.add(1, 10);
+        ring.add(2, 20);
+        ring.add(4, 40);
+        ring.add(5, 50);
+        // Full ring: the late arrival evicts the oldest entry and lands between 2 and 4
+        ring.add(3, 30);
+
+        assertThat(ring.page(TOP, TOP, 4)).containsExactly(5, 4, 3, 2);
+
+        ring.add(6, 60);
+        ring.add(7, 25);
+        assertThat(ring.page(TOP, TOP, 4)).containsExactly(6, 5, 4, 3);
+    }
+
+    @Test
+    void ignoresAnEntryOlderThanAFullRing() {
+        PostIdRing ring = new PostIdRing(2);
+        ring.add(2, 20);
+        ring.add(3, 30);
+        ring.add(1, 10);
+
+        assertThat(ring.page(TOP, TOP, 2)).containsExactly(3, 2);
+        assertThat(ring.page(TOP, TOP, 3)).isNull();
+    }
+
+    @Test
+    void ignoresDuplicates() {
+        PostIdRing ring = new PostIdRing(4);
+        ring.add(1, 10);
+        ring.add(2, 20);
+        ring.add(2, 20);
+        ring.add(1, 10);
+
+        assertThat(ring.size()).isEqualTo(2);
+        assertThat(ring.page(TOP, TOP, 4)).containsExactly(2, 1);
+    }
+
+    @Test
+    void breaksTimeTiesById() {
+        PostIdRing ring = new PostIdRing(4);
+        ring.add(7, 10);
+        ring.add(9, 10);
+        ring.add(8, 10);
+
+        assertThat(ring.page(TOP, TOP, 3)).containsExactly(9, 8, 7);
+        assertThat(ring.page(10, 8, 3)).containsExactly(7);
+    }
+
+    @Test
+    void removesEntriesAfterWrapping() {
+        PostIdRing ring = new PostIdRing(3);
+        for (long id = 1; id <= 5; id++) {
+            ring.add(id, id * 10);
+        }
+
+        assertThat(ring.remove(4)).isTrue();
+        assertThat(ring.remove(1)).isFalse();
+        assertThat(ring.size()).isEqualTo(2);
+        assertThat(ring.page(TOP, TOP, 2)).containsExactly(5, 3);
+
+        ring.add(6, 60);
+        assertThat(ring.page(TOP, TOP, 3)).containsExactly(6, 5, 3);
+    }
+}
@@ -0,0 +1,178 @@
+package com.useronboarding.platform.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Date;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.useronboarding.platform.repository.CommentRepository;
+import com.useronboarding.platform.repository.DeletedPostRepository;
+import com.useronboarding.platform.repository.PostKey;
+import com.useronboarding.platform.repository.PostRepository;
+import com.useronboarding.platform.repository.ProfileVersion;
+import com.useronboarding.platform.repository.UserRepository;
+
+class ResourceVersionsTest {
+    private PostRepository postRepository;
+    private UserRepository userRepository;
+    private DeletedPostRepository deletedPostRepository;
+    private LikeBuffer likeBuffer;
+    private ResourceVersions versions;
+
+    @BeforeEach
+    void setUp() {
+        postRepository = mock(PostRepository.class);
+        userRepository = mock(UserRepository.class);
+        deletedPostRepository = mock(DeletedPostRepository.class);
+        likeBuffer = mock(LikeBuffer.class);
+        when(postRepository.findLastModified()).thenReturn(Optional.of(new Date(1_000)));
+        when(userRepository.findLastModified()).thenReturn(Optional.of(new Date(2_000)));
+        when(deletedPostRepository.findLastId()).thenReturn(Optional.of(5L));
+        versions = newVersions();
+    }
+
+    @Test
+    void allPostsDependsOnTheViewer() {
+        assertThat(versions.allPosts(1L).getETag()).isNotEqualTo(versions.allPosts(2L).getETag());
+        assertThat(versions.allPosts(null).getETag()).isEqualTo(versions.allPosts(null).getETag());
+    }
+
+    @Test
+    void allPostsMovesWithTheNewestPostOrAuthorEdit() {
+        String before = versions.allPosts(1L).getETag();
+
+        when(postRepository.findLastModified()).thenReturn(Optional.of(new Date(1_001)));
+        String afterPostEdit = versions.allPosts(1L).getETag();
+        when(userRepository.findLastModified()).thenReturn(Optional.of(new Date(2_001)));
+        String afterUserEdit = versions.allPosts(1L).getETag();
+
+        assertThat(afterPostEdit).isNotEqualTo(before);
+        assertThat(afterUserEdit).isNotEqualTo(afterPostEdit);
+    }
+
+    @Test
+    void allPostsMovesWithEveryDeletion() {
+        String before = versions.allPosts(1L).getETag();
+
+        when(deletedPostRepository.findLastId()).thenReturn(Optional.of(6L));
+
+        assertThat(versions.allPosts(1L).getETag()).isNotEqualTo(before);
+    }
+
+    @Test
+    void allPostsIsTheSameOnEveryInstanceForTheSameRows() {
+        // Deletions are read from the database, so a restart or another instance agrees on the ETag
+        assertThat(newVersions().allPosts(1L).getETag()).isEqualTo(versions.allPosts(1L).getETag());
+    }
+
+    @Test
+    void allPostsFollowsBufferedLikesWhenTheBufferIsOn() {
+        when(likeBuffer.isEnabled()).thenReturn(true);
+        when(likeBuffer.getVersion()).thenReturn("epoch:1");
+        String before = versions.allPosts(1L).getETag();
+
+        when(likeBuffer.getVersion()).thenReturn("epoch:2");
+
+        assertThat(versions.allPosts(1L).getETag()).isNotEqualTo(before);
+    }
+
+    @Test
+    void allPostsIgnoresTheBufferWhenItIsOff() {
+        String before = versions.allPosts(1L).getETag();
+
+        when(likeBuffer.getVersion()).thenReturn("epoch:2");
+
+        assertThat(versions.allPosts(1L).getETag()).isEqualTo(before);
+    }
+
+    @Test
+    void postIsNullForAMissingPost() {
+        when(postRepository.findKeyById(9L)).thenReturn(Optional.empty());
+
+        assertThat(versions.post(9L, 1L)).isNull();
+    }
+
+    @Test
+    void postFoldsInCountersAndSetsLastModified() {
+        PostKey before = key(1L, 10, 3);
+        PostKey liked = key(1L, 11, 3);
+        when(postRepository.findKeyById(1L)).thenReturn(Optional.of(before));
+        ResourceVersion version = versions.post(1L, 7L);
+
+        when(postRepository.findKeyById(1L)).thenReturn(Optional.of(liked));
+
+        assertThat(versions.post(1L, 7L).getETag()).isNotEqualTo(version.getETag());
+        assertThat(version.getLastModified()).isEqualTo(3_000);
+    }
+
+    @Test
+    void postFollowsPendingLikesAndDropsLastModifiedWithTheBuffer() {
+        when(likeBuffer.isEnabled()).thenReturn(true);
+        PostKey key = key(1L, 10, 3);
+        when(postRepository.findKeyById(1L)).thenReturn(Optional.of(key));
+        ResourceVersion before = versions.post(1L, 7L);
+
+        when(likeBuffer.pendingDelta(1L)).thenReturn(1L);
+        when(likeBuffer.pendingState(1L, 7L)).thenReturn(true);
+
+        assertThat(versions.post(1L, 7L).getETag()).isNotEqualTo(before.getETag());
+        // updated_at does not move for buffered likes, so it cannot stand in for the response
+        assertThat(before.getLastModified()).isEqualTo(-1);
+    }
+
+    @Test
+    void profileMovesWhenARehashBumpsTheVersion() {
+        ProfileVersion before = profile(1L);
+        ProfileVersion rehashed = profile(2L);
+        when(userRepository.findProfileVersionById(7L)).thenReturn(Optional.of(before));
+        String etag = versions.profile(7L).getETag();
+
+        // The rehash leaves updated_at and the counters alone
+        when(userRepository.findProfileVersionById(7L)).thenReturn(Optional.of(rehashed));
+
+        assertThat(versions.profile(7L).getETag()).isNotEqualTo(etag);
+    }
+
+    @Test
+    void profileIsNullForAMissingUser() {
+        when(userRepository.findProfileVersionById(9L)).thenReturn(Optional.empty());
+
+        assertThat(versions.profile(9L)).isNull();
+    }
+
+    private ResourceVersions newVersions() {
+        ResourceVersions resourceVersions = new ResourceVersions();
+        ReflectionTestUtils.setField(resourceVersions, "postRepository", postRepository);
+        ReflectionTestUtils.setField(resourceVersions, "commentRepository", mock(CommentRepository.class));
+        ReflectionTestUtils.setField(resourceVersions, "userRepository", userRepository);
+        ReflectionTestUtils.setField(resourceVersions, "deletedPostRepository", deletedPostRepository);
+        ReflectionTestUtils.setField(resourceVersions, "likeBuffer", likeBuffer);
+        return resourceVersions;
+    }
+
+    private static PostKey key(Long id, long likeCount, long commentCount) {
+        PostKey key = mock(PostKey.class);
+        when(key.getId()).thenReturn(id);
+        when(key.getCreatedAt()).thenReturn(new Date(1_000));
+        when(key.getUpdatedAt()).thenReturn(new Date(3_000));
+        when(key.getLikeCount()).thenReturn(likeCount);
+        when(key.getCommentCount()).thenReturn(commentCount);
+        when(key.getUserUpdatedAt()).thenReturn(new Date(2_000));
+        return key;
+    }
+
+    private static ProfileVersion profile(long version) {
+        ProfileVersion profile = mock(ProfileVersion.class);
+        when(profile.getUpdatedAt()).thenReturn(new Date(2_000));
+        when(profile.getVersion()).thenReturn(version);
+        when(profile.getFollowerCount()).thenReturn(4L);
+        when(profile.getFollowingCount()).thenReturn(5L);
+        return profile;
+    }
+}
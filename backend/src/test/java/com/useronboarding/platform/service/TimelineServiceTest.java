@@ -0,0 +1,171 @@
+package com.useronboarding.platform.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.useronboarding.platform.metrics.MetricsRegistry;
+import com.useronboarding.platform.model.PendingFanout;
+import com.useronboarding.platform.repository.FollowRepository;
+import com.useronboarding.platform.repository.PostKey;
+import com.useronboarding.platform.repository.PostRepository;
+import com.useronboarding.platform.repository.UserRepository;
+
+class TimelineServiceTest {
+    private static final long THRESHOLD = 3;
+    private static final long AUTHOR_ID = 20L;
+    private static final long POST_ID = 7L;
+
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    private FollowRepository followRepository;
+    private PostRepository postRepository;
+    private UserRepository userRepository;
+    private MetricsRegistry metricsRegistry;
+    private TimelineService service;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+        followRepository = mock(FollowRepository.class);
+        postRepository = mock(PostRepository.class);
+        userRepository = mock(UserRepository.class);
+        metricsRegistry = new MetricsRegistry();
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        when(followRepository.findFollowerIdsAfter(eq(AUTHOR_ID), any(), any(Pageable.class)))
+                .thenReturn(List.of(10L, 11L));
+
+        service = new TimelineService();
+        ReflectionTestUtils.setField(service, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(service, "transactionTemplate", new TransactionTemplate(transactionManager));
+        ReflectionTestUtils.setField(service, "followRepository", followRepository);
+        ReflectionTestUtils.setField(service, "postRepository", postRepository);
+        ReflectionTestUtils.setField(service, "userRepository", userRepository);
+        ReflectionTestUtils.setField(service, "metricsRegistry", metricsRegistry);
+        ReflectionTestUtils.setField(service, "timelineIndex", mock(TimelineIndex.class));
+        ReflectionTestUtils.setField(service, "fanoutThreshold", THRESHOLD);
+        ReflectionTestUtils.setField(service, "maxLength", 500);
+        // Never trims, so the only statements are the ones under test
+        ReflectionTestUtils.setField(service, "trimSlack", Integer.MAX_VALUE);
+        ReflectionTestUtils.setField(service, "fanoutBatchSize", 1000);
+        ReflectionTestUtils.setField(service, "backfillSize", 50);
+    }
+
+    @Test
+    void fansOutJustBelowTheThreshold() {
+        when(userRepository.findFollowerCount(AUTHOR_ID)).thenReturn(Optional.of(THRESHOLD - 1));
+
+        service.fanOut(pending(0L));
+
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT IGNORE INTO timeline_entries"), any(SqlParameterSource[].class));
+        verify(jdbcTemplate).update(startsWith("DELETE FROM pending_fanouts"), any(SqlParameterSource.class));
+        assertThat(metricsRegistry.counter("timeline.fanout.entries").sum()).isEqualTo(2);
+    }
+
+    @Test
+    void leavesAuthorsAtTheThresholdToTheReadMerge() {
+        when(userRepository.findFollowerCount(AUTHOR_ID)).thenReturn(Optional.of(THRESHOLD));
+
+        service.fanOut(pending(0L));
+
+        verify(jdbcTemplate, never()).batchUpdate(any(String.class), any(SqlParameterSource[].class));
+        // Nothing is left to retry either
+        verify(jdbcTemplate).update(startsWith("DELETE FROM pending_fanouts"), any(SqlParameterSource.class));
+        assertThat(metricsRegistry.counter("timeline.fanout.skipped").sum()).isEqualTo(1);
+    }
+
+    @Test
+    void keepsTheFanoutPendingWhenABatchFails() {
+        when(userRepository.findFollowerCount(AUTHOR_ID)).thenReturn(Optional.of(1L));
+        when(jdbcTemplate.batchUpdate(startsWith("INSERT IGNORE INTO timeline_entries"), any(SqlParameterSource[].class)))
+                .thenThrow(new QueryTimeoutException("timeout"));
+
+        service.fanOut(pending(0L));
+
+        verify(jdbcTemplate, never()).update(startsWith("DELETE FROM pending_fanouts"), any(SqlParameterSource.class));
+        assertThat(metricsRegistry.counter("timeline.fanout.failed").sum()).isEqualTo(1);
+    }
+
+    @Test
+    void resumesAfterTheLastFollowerReached() {
+        when(userRepository.findFollowerCount(AUTHOR_ID)).thenReturn(Optional.of(1L));
+
+        service.fanOut(pending(5L));
+
+        verify(followRepository).findFollowerIdsAfter(eq(AUTHOR_ID), eq(5L), any(Pageable.class));
+        ArgumentCaptor<SqlParameterSource> progress = ArgumentCaptor.forClass(SqlParameterSource.class);
+        verify(jdbcTemplate).update(startsWith("UPDATE pending_fanouts"), progress.capture());
+        assertThat(progress.getValue().getValue("deliveredThrough")).isEqualTo(11L);
+    }
+
+    @Test
+    void homePageMergesAuthorsAtTheThresholdWithDeliveredEntries() {
+        Long viewerId = 1L;
+        when(followRepository.findFolloweeIdsWithFollowersAtLeast(viewerId, THRESHOLD)).thenReturn(List.of(AUTHOR_ID));
+        when(jdbcTemplate.queryForList(startsWith("SELECT post_id FROM timeline_entries"), any(SqlParameterSource.class),
+                eq(Long.class))).thenReturn(List.of(1L, 2L));
+        PostKey first = key(1L, 1_000);
+        PostKey second = key(2L, 2_000);
+        PostKey third = key(3L, 3_000);
+        when(postRepository.findKeysByIdIn(anyList())).thenReturn(List.of(first, second));
+        // The author crossed the threshold after post 2 was delivered, so it comes back from both sides
+        when(postRepository.findKeysByUserIdsFirstPage(eq(List.of(AUTHOR_ID, viewerId)), any(Pageable.class)))
+                .thenReturn(List.of(second, third));
+
+        FeedRenderer.Page page = service.findHomePage(viewerId, null, 10);
+
+        assertThat(page.getKeys()).extracting(PostKey::getId).containsExactly(3L, 2L, 1L);
+        assertThat(page.isHasMore()).isFalse();
+    }
+
+    @Test
+    void queuesABackfillWhenAnAuthorDropsBelowTheThreshold() {
+        service.unfollowed(1L, AUTHOR_ID, THRESHOLD - 1);
+
+        ArgumentCaptor<SqlParameterSource> params = ArgumentCaptor.forClass(SqlParameterSource.class);
+        verify(jdbcTemplate).update(startsWith("INSERT IGNORE INTO pending_fanouts"), params.capture());
+        assertThat(params.getValue().getValue("authorId")).isEqualTo(AUTHOR_ID);
+        assertThat(params.getValue().getValue("limit")).isEqualTo(50);
+    }
+
+    @Test
+    void queuesNoBackfillAwayFromTheThreshold() {
+        service.unfollowed(1L, AUTHOR_ID, THRESHOLD);
+        service.unfollowed(1L, AUTHOR_ID, THRESHOLD - 2);
+
+        verify(jdbcTemplate, never()).update(startsWith("INSERT IGNORE INTO pending_fanouts"), any(SqlParameterSource.class));
+    }
+
+    private static PendingFanout pending(long deliveredThrough) {
+        return new PendingFanout(POST_ID, AUTHOR_ID, new Date(1_000), deliveredThrough, new Date(2_000));
+    }
+
+    private static PostKey key(Long id, long createdAt) {
+        PostKey key = mock(PostKey.class);
+        when(key.getId()).thenReturn(id);
+        when(key.getCreatedAt()).thenReturn(new Date(createdAt));
+        return key;
+    }
+}
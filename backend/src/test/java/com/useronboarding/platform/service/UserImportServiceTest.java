@@ -0,0 +1,149 @@
+package com.useronboarding.platform.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import com.useronboarding.platform.config.DatabaseInitializer;
+import com.useronboarding.platform.model.ERole;
+import com.useronboarding.platform.model.Role;
+import com.useronboarding.platform.payload.request.SignupRequest;
+import com.useronboarding.platform.payload.response.BulkImportResponse;
+import com.useronboarding.platform.repository.UserRepository;
+
+class UserImportServiceTest {
+    // MySQL Connector/J with rewriteBatchedStatements=true
+    private static final int SUCCESS_NO_INFO = -2;
+
+    private UserRepository userRepository;
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    private UserImportService service;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+        PasswordEncoder encoder = mock(PasswordEncoder.class);
+        when(encoder.encode(anyString())).thenAnswer(invocation -> "hash-" + invocation.getArgument(0));
+        DatabaseInitializer databaseInitializer = mock(DatabaseInitializer.class);
+        when(databaseInitializer.getUserRole()).thenReturn(new Role(1, ERole.ROLE_USER));
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+
+        service = new UserImportService();
+        ReflectionTestUtils.setField(service, "userRepository", userRepository);
+        ReflectionTestUtils.setField(service, "databaseInitializer", databaseInitializer);
+        ReflectionTestUtils.setField(service, "encoder", encoder);
+        ReflectionTestUtils.setField(service, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(service, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(service, "batchSize", 500);
+    }
+
+    @Test
+    void createsEveryAccountTheInsertWrote() {
+        batchReturns(SUCCESS_NO_INFO, SUCCESS_NO_INFO);
+        when(jdbcTemplate.queryForList(startsWith("SELECT id, username, password"), any(SqlParameterSource.class)))
+                .thenReturn(List.of(row(10L, "alice", "hash-pw-a"), row(11L, "bob", "hash-pw-b")));
+
+        BulkImportResponse response = service.importUsers(List.of(
+                signup("alice", "alice@example.com", "pw-a"), signup("bob", "bob@example.com", "pw-b")));
+
+        assertThat(response.getCreated()).isEqualTo(2);
+        assertThat(response.getSkipped()).isEmpty();
+        assertThat(grantedIds()).containsExactly(10L, 11L);
+    }
+
+    @Test
+    void skipsRowsTheInsertIgnoredDespiteNoInfoCounts() {
+        batchReturns(SUCCESS_NO_INFO, SUCCESS_NO_INFO, SUCCESS_NO_INFO);
+        // Another signup claimed "Bob" between the pre-check and the insert; "carol"'s email was taken
+        when(jdbcTemplate.queryForList(startsWith("SELECT id, username, password"), any(SqlParameterSource.class)))
+                .thenReturn(List.of(row(10L, "alice", "hash-pw-a"), row(7L, "Bob", "hash-someone-else")));
+
+        BulkImportResponse response = service.importUsers(List.of(
+                signup("alice", "alice@example.com", "pw-a"),
+                signup("bob", "bob@example.com", "pw-b"),
+                signup("carol", "carol@example.com", "pw-c")));
+
+        assertThat(response.getRequested()).isEqualTo(3);
+        assertThat(response.getCreated()).isEqualTo(1);
+        assertThat(response.getSkipped()).containsExactly(
+                "bob: Username or email is already in use",
+                "carol: Username or email is already in use");
+        // The pre-existing account never receives the role
+        assertThat(grantedIds()).containsExactly(10L);
+    }
+
+    @Test
+    void grantsNoRolesWhenNothingWasInserted() {
+        batchReturns(SUCCESS_NO_INFO);
+        when(jdbcTemplate.queryForList(startsWith("SELECT id, username, password"), any(SqlParameterSource.class)))
+                .thenReturn(List.of());
+
+        BulkImportResponse response = service.importUsers(List.of(signup("alice", "alice@example.com", "pw-a")));
+
+        assertThat(response.getCreated()).isZero();
+        verify(jdbcTemplate, never()).update(startsWith("INSERT IGNORE INTO user_roles"), any(SqlParameterSource.class));
+    }
+
+    @Test
+    void skipsKnownDuplicatesBeforeInserting() {
+        when(userRepository.findExistingUsernames(any())).thenReturn(List.of("ALICE"));
+        batchReturns(SUCCESS_NO_INFO);
+        when(jdbcTemplate.queryForList(startsWith("SELECT id, username, password"), any(SqlParameterSource.class)))
+                .thenReturn(List.of(row(12L, "dave", "hash-pw-d")));
+
+        BulkImportResponse response = service.importUsers(List.of(
+                signup("alice", "alice@example.com", "pw-a"),
+                signup("dave", "alice@example.com", "pw-d"),
+                signup("dave2", "alice@example.com", "pw-e")));
+
+        assertThat(response.getCreated()).isEqualTo(1);
+        assertThat(response.getSkipped()).containsExactly(
+                "alice: Username is already taken",
+                "dave2: Email is already in use");
+    }
+
+    private void batchReturns(int... counts) {
+        when(jdbcTemplate.batchUpdate(startsWith("INSERT IGNORE INTO users"), any(SqlParameterSource[].class)))
+                .thenReturn(counts);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Long> grantedIds() {
+        ArgumentCaptor<SqlParameterSource> params = ArgumentCaptor.forClass(SqlParameterSource.class);
+        verify(jdbcTemplate).update(startsWith("INSERT IGNORE INTO user_roles"), params.capture());
+        assertThat(params.getValue().getValue("roleId")).isEqualTo(1);
+        return (List<Long>) params.getValue().getValue("ids");
+    }
+
+    private static Map<String, Object> row(Long id, String username, String password) {
+        return Map.of("id", id, "username", username, "password", password);
+    }
+
+    private static SignupRequest signup(String username, String email, String password) {
+        SignupRequest request = new SignupRequest();
+        request.setUsername(username);
+        request.setEmail(email);
+        request.setPassword(password);
+        return request;
+    }
+}
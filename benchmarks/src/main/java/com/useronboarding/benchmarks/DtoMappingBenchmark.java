@@ -0,0 +1,66 @@
+package com.useronboarding.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.useronboarding.platform.dto.PostDTO;
+import com.useronboarding.platform.dto.UserSummaryDTO;
+import com.useronboarding.platform.model.Post;
+import com.useronboarding.platform.model.User;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoMappingBenchmark {
+    // One feed page, the unit the controllers map per request
+    private static final int PAGE_SIZE = 20;
+
+    private User user;
+    private Post post;
+    private List<Post> page;
+
+    @Setup
+    public void setUp() {
+        SyntheticData data = new SyntheticData();
+        user = data.user(1);
+        post = data.post(1, user);
+        page = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            page.add(data.post(i + 1, data.user(i % 7)));
+        }
+    }
+
+    @Benchmark
+    public UserSummaryDTO userSummaryFromUser() {
+        return UserSummaryDTO.fromUser(user);
+    }
+
+    @Benchmark
+    public PostDTO postFromEntity() {
+        return PostDTO.fromEntity(post, true);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void feedPageFromEntities(Blackhole blackhole) {
+        for (Post each : page) {
+            blackhole.consume(PostDTO.fromEntity(each));
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.useronboarding.benchmarks;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import com.useronboarding.platform.metrics.MetricsRegistry;
+import com.useronboarding.platform.model.User;
+import com.useronboarding.platform.security.jwt.JwtUtils;
+import com.useronboarding.platform.security.services.UserDetailsImpl;
+
+import io.jsonwebtoken.Claims;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SecurityBenchmark {
+    private static final String SECRET = "secureSecretKeyForJwtTokenGenerationInUserOnboardingPlatform";
+    // More distinct tokens than the verified-token cache holds, so every parse does the HMAC
+    private static final int COLD_TOKENS = 4096;
+    private static final int COLD_CACHE_SIZE = 16;
+
+    private User user;
+    private Authentication authentication;
+    private JwtUtils jwtUtils;
+    private JwtUtils coldJwtUtils;
+    private String token;
+    private String[] coldTokens;
+    private int next;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        SyntheticData data = new SyntheticData();
+        user = data.user(1);
+        UserDetailsImpl principal = UserDetailsImpl.build(user);
+        authentication = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+
+        jwtUtils = jwtUtils(10_000);
+        coldJwtUtils = jwtUtils(COLD_CACHE_SIZE);
+        token = jwtUtils.generateJwtToken(authentication);
+
+        List<String> tokens = new ArrayList<>(COLD_TOKENS);
+        for (int i = 0; i < COLD_TOKENS; i++) {
+            UserDetailsImpl other = UserDetailsImpl.build(data.user(i + 2));
+            tokens.add(coldJwtUtils.generateJwtToken(
+                    new UsernamePasswordAuthenticationToken(other, null, other.getAuthorities())));
+        }
+        coldTokens = tokens.toArray(new String[0]);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public String generateToken() {
+        return jwtUtils.generateJwtToken(authentication);
+    }
+
+    // The steady state for a signed-in client: the token verified on an earlier request
+    @Benchmark
+    public Claims parseCachedToken() {
+        return jwtUtils.parseClaims(token);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Claims parseUncachedToken() {
+        String candidate = coldTokens[next];
+        next = (next + 1) % COLD_TOKENS;
+        return coldJwtUtils.parseClaims(candidate);
+    }
+
+    @Benchmark
+    public UserDetailsImpl buildPrincipalFromUser() {
+        return UserDetailsImpl.build(user);
+    }
+
+    @Benchmark
+    public UserDetailsImpl buildPrincipalFromClaims() {
+        return jwtUtils.buildPrincipal(jwtUtils.parseClaims(token));
+    }
+
+    // JwtUtils is a Spring bean with field injection; wire it the way the container would
+    private static JwtUtils jwtUtils(int cacheSize) throws ReflectiveOperationException {
+        JwtUtils utils = new JwtUtils();
+        set(utils, "jwtSecret", SECRET);
+        set(utils, "jwtExpirationMs", 86_400_000);
+        set(utils, "verifiedCacheSize", cacheSize);
+        set(utils, "metricsRegistry", new MetricsRegistry());
+        utils.init();
+        return utils;
+    }
+
+    private static void set(Object target, String name, Object value) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
@@ -0,0 +1,64 @@
+package com.useronboarding.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.useronboarding.platform.config.JacksonConfig;
+
+// Entity graphs through the application's ObjectMapper, as the endpoints that return entities do.
+// The million-element graphs need a few GB of heap: run with -jvmArgs -Xmx4g.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SerializationBenchmark {
+
+    @Param({ "post-likes", "post-comments", "comment-replies" })
+    public String graph;
+
+    @Param({ "1000", "100000", "1000000" })
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private Object root;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = new JacksonConfig().objectMapper();
+        SyntheticData data = new SyntheticData();
+        switch (graph) {
+            case "post-likes":
+                root = data.postWithLikes(size);
+                break;
+            case "post-comments":
+                root = data.postWithComments(size);
+                break;
+            case "comment-replies":
+                root = data.commentWithReplies(size);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown graph " + graph);
+        }
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(root);
+    }
+}
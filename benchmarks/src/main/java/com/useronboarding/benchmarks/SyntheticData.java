@@ -0,0 +1,124 @@
+package com.useronboarding.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import com.useronboarding.platform.model.Comment;
+import com.useronboarding.platform.model.ERole;
+import com.useronboarding.platform.model.Post;
+import com.useronboarding.platform.model.Role;
+import com.useronboarding.platform.model.User;
+
+// Deterministic entity graphs shaped like production rows: short usernames, mixed-length
+// content, a few hundred characters of bio, and authors that repeat across comments.
+public final class SyntheticData {
+    private static final long SEED = 42L;
+    private static final long EPOCH = 1_700_000_000_000L;
+    private static final String[] WORDS = ("lorem ipsum dolor sit amet consectetur adipiscing elit sed do eiusmod "
+            + "tempor incididunt ut labore et dolore magna aliqua enim ad minim veniam quis nostrud").split(" ");
+
+    // Distinct authors a large thread draws from
+    public static final int AUTHOR_POOL = 10_000;
+
+    private final Random random = new Random(SEED);
+    private final Role userRole = new Role(1, ERole.ROLE_USER);
+    private long nextCommentId = 1;
+
+    public User user(long id) {
+        Set<Role> roles = new HashSet<>();
+        roles.add(userRole);
+        User user = new User();
+        user.setId(id);
+        user.setUsername("user" + id);
+        user.setEmail("user" + id + "@example.com");
+        user.setPassword("$2a$10$" + text(53));
+        user.setBio(random.nextInt(4) == 0 ? null : text(40 + random.nextInt(200)));
+        user.setProfilePicture(random.nextBoolean() ? "https://cdn.example.com/avatars/" + id + ".png" : null);
+        user.setJoinDate(new Date(EPOCH - random.nextInt(1_000_000_000)));
+        user.setRoles(roles);
+        return user;
+    }
+
+    public List<User> users(int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            users.add(user(i));
+        }
+        return users;
+    }
+
+    public Post post(long id, User author) {
+        Post post = new Post();
+        post.setId(id);
+        post.setUser(author);
+        post.setContent(text(20 + random.nextInt(480)));
+        post.setCreatedAt(new Date(EPOCH + id * 1000));
+        post.setUpdatedAt(post.getCreatedAt());
+        post.setLikeCount(random.nextInt(500));
+        post.setCommentCount(random.nextInt(50));
+        return post;
+    }
+
+    // Every like comes from a different user, as the unique key on post_likes guarantees
+    public Post postWithLikes(int likes) {
+        Post post = post(1, user(0));
+        post.setLikes(users(likes));
+        post.setLikeCount(likes);
+        return post;
+    }
+
+    public Post postWithComments(int comments) {
+        Post post = post(1, user(0));
+        List<User> authors = users(Math.min(comments, AUTHOR_POOL));
+        List<Comment> list = new ArrayList<>(comments);
+        for (int i = 0; i < comments; i++) {
+            list.add(comment(post, null, authors.get(random.nextInt(authors.size()))));
+        }
+        post.setComments(list);
+        post.setCommentCount(comments);
+        return post;
+    }
+
+    public Comment commentWithReplies(int replies) {
+        Post post = post(1, user(0));
+        Comment root = comment(post, null, user(0));
+        List<User> authors = users(Math.min(replies, AUTHOR_POOL));
+        List<Comment> list = new ArrayList<>(replies);
+        for (int i = 0; i < replies; i++) {
+            list.add(comment(post, root, authors.get(random.nextInt(authors.size()))));
+        }
+        root.setReplies(list);
+        root.setReplyCount(replies);
+        return root;
+    }
+
+    private Comment comment(Post post, Comment parent, User author) {
+        Comment comment = new Comment();
+        comment.setId(nextCommentId++);
+        comment.setPost(post);
+        comment.setParentComment(parent);
+        comment.setUser(author);
+        comment.setContent(text(10 + random.nextInt(290)));
+        comment.setCreatedAt(new Date(EPOCH + comment.getId() * 1000));
+        comment.setUpdatedAt(comment.getCreatedAt());
+        comment.setLikeCount(random.nextInt(20));
+        comment.setDepth(parent == null ? 0 : parent.getDepth() + 1);
+        return comment;
+    }
+
+    private String text(int length) {
+        StringBuilder builder = new StringBuilder(length);
+        while (builder.length() < length) {
+            if (builder.length() > 0) {
+                builder.append(' ');
+            }
+            builder.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        builder.setLength(length);
+        return builder.toString();
+    }
+}
@@ -0,0 +1,116 @@
+package com.useronboarding.loadtest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+// Thin blocking client over the public endpoints; every call goes through the real HTTP stack
+public class ApiClient {
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient http;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final String baseUrl;
+
+    public ApiClient(String baseUrl) {
+        this.baseUrl = baseUrl;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(TIMEOUT)
+                .build();
+    }
+
+    public int signup(String username, String email, String password) {
+        ObjectNode body = mapper.createObjectNode()
+                .put("username", username)
+                .put("email", email)
+                .put("password", password);
+        return post("/api/auth/signup", null, body).statusCode();
+    }
+
+    public String signin(String username, String password) {
+        ObjectNode body = mapper.createObjectNode()
+                .put("username", username)
+                .put("password", password);
+        HttpResponse<String> response = post("/api/auth/signin", null, body);
+        expectOk(response, "sign in " + username);
+        return readTree(response.body()).path("accessToken").asText();
+    }
+
+    public int createPost(String token, String content) {
+        return post("/api/posts", token, mapper.createObjectNode().put("content", content)).statusCode();
+    }
+
+    public int addComment(String token, long postId, String content) {
+        return post("/api/comments/post/" + postId, token, mapper.createObjectNode().put("content", content))
+                .statusCode();
+    }
+
+    public int addReply(String token, long commentId, String content) {
+        return post("/api/comments/" + commentId + "/reply", token,
+                mapper.createObjectNode().put("content", content)).statusCode();
+    }
+
+    public int get(String path, String token) {
+        return send(request(path, token).GET().build()).statusCode();
+    }
+
+    public String getBody(String path, String token) {
+        HttpResponse<String> response = send(request(path, token).GET().build());
+        expectOk(response, "GET " + path);
+        return response.body();
+    }
+
+    public int postEmpty(String path, String token) {
+        return send(request(path, token).POST(HttpRequest.BodyPublishers.noBody()).build()).statusCode();
+    }
+
+    private HttpResponse<String> post(String path, String token, JsonNode body) {
+        HttpRequest request = request(path, token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+        return send(request);
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(TIMEOUT);
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private HttpResponse<String> send(HttpRequest request) {
+        try {
+            return http.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during " + request.uri(), e);
+        }
+    }
+
+    private JsonNode readTree(String json) {
+        try {
+            return mapper.readTree(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void expectOk(HttpResponse<String> response, String what) {
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Could not " + what + ": HTTP " + response.statusCode() + " " + response.body());
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.useronboarding.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.useronboarding.platform.UserOnboardingPlatformApplication;
+
+// The real application on a random port, backed by a private in-memory H2 database in MySQL mode
+public class EmbeddedApp implements AutoCloseable {
+    private final ConfigurableApplicationContext context;
+    private final StatementCounter statementCounter;
+    private final String baseUrl;
+
+    private EmbeddedApp(ConfigurableApplicationContext context, StatementCounter statementCounter) {
+        this.context = context;
+        this.statementCounter = statementCounter;
+        this.baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+    }
+
+    public static EmbeddedApp start(Map<String, Object> overrides) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("spring.datasource.url", "jdbc:h2:mem:" + UUID.randomUUID()
+                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.jpa.hibernate.ddl-auto", "create");
+        properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        properties.put("spring.jpa.show-sql", "false");
+        properties.put("server.port", "0");
+        properties.put("app.likes.buffer.enabled", "false");
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.com.useronboarding.platform", "WARN");
+        properties.putAll(overrides);
+
+        // Passed as command-line arguments so they win over the bundled application.properties
+        String[] args = properties.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+        StatementCounter statementCounter = new StatementCounter();
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(UserOnboardingPlatformApplication.class)
+                .initializers(initializing -> initializing.getBeanFactory().addBeanPostProcessor(statementCounter))
+                .run(args);
+        return new EmbeddedApp(context, statementCounter);
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public StatementCounter getStatementCounter() {
+        return statementCounter;
+    }
+
+    public ConfigurableApplicationContext getContext() {
+        return context;
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
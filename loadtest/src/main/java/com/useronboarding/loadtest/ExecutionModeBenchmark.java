@@ -0,0 +1,51 @@
+package com.useronboarding.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Runs the same feed, comment-thread and like workloads against the app once per execution mode.
+// Arguments (all optional): clients=400 seconds=20 warmup=5 users=1000 posts=2000 comments=4
+// tomcat-threads=200 db-connections=10 modes=platform,virtual, plus any app./spring./server. property
+public class ExecutionModeBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        Options options = new Options(args);
+        int clients = options.getInt("clients", 400);
+        long seconds = options.getLong("seconds", 20);
+        long warmup = options.getLong("warmup", 5);
+        Seeder.Scale scale = new Seeder.Scale(options.getInt("users", 1000), options.getInt("posts", 2000),
+                options.getInt("comments", 4), 0, 0);
+        String tomcatThreads = options.get("tomcat-threads", "200");
+        String dbConnections = options.get("db-connections", "10");
+        String[] modes = options.get("modes", "platform,virtual").split(",");
+
+        List<String> report = new ArrayList<>();
+        for (String mode : modes) {
+            Map<String, Object> overrides = options.overrides();
+            overrides.put("app.execution.mode", mode);
+            overrides.put("server.tomcat.threads.max", tomcatThreads);
+            overrides.put("server.tomcat.max-connections", String.valueOf(Math.max(8192, clients * 2)));
+            overrides.put("spring.datasource.hikari.maximum-pool-size", dbConnections);
+
+            try (EmbeddedApp app = EmbeddedApp.start(overrides)) {
+                Seeder seeder = new Seeder(app);
+                seeder.seed(scale);
+                List<String> tokens = seeder.tokens(Math.min(scale.users, clients));
+                ApiClient api = new ApiClient(app.getBaseUrl());
+                LoadDriver driver = new LoadDriver(clients, warmup * 1000, seconds * 1000);
+                int posts = scale.posts;
+
+                report.add("mode=" + mode + " clients=" + clients + " tomcat-threads=" + tomcatThreads
+                        + " db-connections=" + dbConnections);
+                report.add("  " + driver.run("feed", (client, random) -> api.get("/api/posts/feed?limit=20",
+                        tokens.get(client % tokens.size()))));
+                report.add("  " + driver.run("comment-thread", (client, random) -> api.get(
+                        "/api/comments/post/" + (1 + random.nextInt(posts)), tokens.get(client % tokens.size()))));
+                report.add("  " + driver.run("like-toggle", (client, random) -> api.postEmpty(
+                        "/api/posts/" + (1 + random.nextInt(posts)) + "/like", tokens.get(client % tokens.size()))));
+            }
+        }
+        report.forEach(System.out::println);
+    }
+}
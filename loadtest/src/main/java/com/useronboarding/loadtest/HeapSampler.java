@@ -0,0 +1,68 @@
+package com.useronboarding.loadtest;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+
+// Samples used heap in the background while a scenario runs. Client and server share the JVM,
+// so the numbers include the driver; it keeps only primitive latencies, which is small by comparison.
+public class HeapSampler implements AutoCloseable {
+    private static final long INTERVAL_MS = 50;
+
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final long gcCountAtStart = gcCount();
+    private final long gcMillisAtStart = gcMillis();
+    private final Thread thread;
+    private volatile boolean running = true;
+    private volatile long peakBytes;
+
+    public HeapSampler() {
+        thread = new Thread(() -> {
+            while (running) {
+                peakBytes = Math.max(peakBytes, memory.getHeapMemoryUsage().getUsed());
+                try {
+                    Thread.sleep(INTERVAL_MS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }, "heap-sampler");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public long getPeakMb() {
+        return peakBytes / (1024 * 1024);
+    }
+
+    public long getGcCount() {
+        return gcCount() - gcCountAtStart;
+    }
+
+    public long getGcMillis() {
+        return gcMillis() - gcMillisAtStart;
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        thread.interrupt();
+        thread.join();
+    }
+
+    private static long gcCount() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionCount());
+        }
+        return total;
+    }
+
+    private static long gcMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionTime());
+        }
+        return total;
+    }
+}
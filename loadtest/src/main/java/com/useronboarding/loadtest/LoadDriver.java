@@ -0,0 +1,151 @@
+package com.useronboarding.loadtest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Closed-loop driver: each client thread issues its next request as soon as the previous one
+// answers. Latencies are kept per client and merged afterwards, so recording costs no locking.
+public class LoadDriver {
+
+    @FunctionalInterface
+    public interface Operation {
+        // Returns the HTTP status; anything outside 2xx/304 counts as an error
+        int call(int client, ThreadLocalRandom random) throws Exception;
+    }
+
+    private final int clients;
+    private final long warmupMs;
+    private final long durationMs;
+
+    public LoadDriver(int clients, long warmupMs, long durationMs) {
+        this.clients = clients;
+        this.warmupMs = warmupMs;
+        this.durationMs = durationMs;
+    }
+
+    public Result run(String name, Operation operation) throws InterruptedException {
+        List<Worker> workers = new ArrayList<>(clients);
+        CountDownLatch done = new CountDownLatch(clients);
+        long start = System.nanoTime();
+        long measureFrom = start + warmupMs * 1_000_000L;
+        long end = measureFrom + durationMs * 1_000_000L;
+        for (int i = 0; i < clients; i++) {
+            Worker worker = new Worker(i, operation, measureFrom, end, done);
+            workers.add(worker);
+            Thread thread = new Thread(worker, "load-client-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        done.await();
+
+        int total = 0;
+        long errors = 0;
+        for (Worker worker : workers) {
+            total += worker.count;
+            errors += worker.errors;
+        }
+        long[] latencies = new long[total];
+        int offset = 0;
+        for (Worker worker : workers) {
+            System.arraycopy(worker.latencies, 0, latencies, offset, worker.count);
+            offset += worker.count;
+        }
+        Arrays.sort(latencies);
+        return new Result(name, latencies, errors, durationMs);
+    }
+
+    private static final class Worker implements Runnable {
+        private final int client;
+        private final Operation operation;
+        private final long measureFrom;
+        private final long end;
+        private final CountDownLatch done;
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+
+        Worker(int client, Operation operation, long measureFrom, long end, CountDownLatch done) {
+            this.client = client;
+            this.operation = operation;
+            this.measureFrom = measureFrom;
+            this.end = end;
+            this.done = done;
+        }
+
+        @Override
+        public void run() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            try {
+                long now;
+                while ((now = System.nanoTime()) < end) {
+                    int status;
+                    try {
+                        status = operation.call(client, random);
+                    } catch (Exception e) {
+                        status = -1;
+                    }
+                    long finished = System.nanoTime();
+                    if (now < measureFrom) {
+                        continue;
+                    }
+                    if (count == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, count * 2);
+                    }
+                    latencies[count++] = finished - now;
+                    if (!(status >= 200 && status < 300) && status != 304) {
+                        errors++;
+                    }
+                }
+            } finally {
+                done.countDown();
+            }
+        }
+    }
+
+    public static final class Result {
+        private final String name;
+        private final long[] sortedLatencies;
+        private final long errors;
+        private final long durationMs;
+
+        Result(String name, long[] sortedLatencies, long errors, long durationMs) {
+            this.name = name;
+            this.sortedLatencies = sortedLatencies;
+            this.errors = errors;
+            this.durationMs = durationMs;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getRequests() {
+            return sortedLatencies.length;
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        public double getThroughput() {
+            return sortedLatencies.length * 1000.0 / durationMs;
+        }
+
+        public double percentileMs(double quantile) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, index)] / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-24s %9d req %9.1f req/s  p50 %8.2f ms  p99 %8.2f ms  errors %d",
+                    name, getRequests(), getThroughput(), percentileMs(0.50), percentileMs(0.99), errors);
+        }
+    }
+}
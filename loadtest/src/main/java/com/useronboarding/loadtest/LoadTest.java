@@ -0,0 +1,165 @@
+package com.useronboarding.loadtest;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Seeds the app at a chosen scale and drives each workload through the real endpoints, reporting
+// latency, throughput, SQL statements per request and heap for every scenario.
+//
+// Arguments (all optional):
+//   users=1000 posts=5000 comments-per-post=5 replies-per-comment=2 likes-per-post=20
+//   clients=64 seconds=30 warmup=5 hot-posts=3
+//   scenarios=feed,thread,like-storm,signup-burst,mixed
+//   mix=feed:50,thread:30,like:15,signup:5
+// plus any app./spring./server./logging. property, e.g. app.likes.buffer.enabled=true
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        Options options = new Options(args);
+        Seeder.Scale scale = new Seeder.Scale(
+                options.getInt("users", 1000),
+                options.getInt("posts", 5000),
+                options.getInt("comments-per-post", 5),
+                options.getInt("replies-per-comment", 2),
+                options.getInt("likes-per-post", 20));
+        int clients = options.getInt("clients", 64);
+        long seconds = options.getLong("seconds", 30);
+        long warmup = options.getLong("warmup", 5);
+        int hotPosts = Math.max(1, Math.min(scale.posts, options.getInt("hot-posts", 3)));
+        String[] scenarios = options.get("scenarios", "feed,thread,like-storm,signup-burst,mixed").split(",");
+        Map<String, Integer> mix = parseMix(options.get("mix", "feed:50,thread:30,like:15,signup:5"));
+
+        try (EmbeddedApp app = EmbeddedApp.start(options.overrides())) {
+            long seedStart = System.nanoTime();
+            Seeder seeder = new Seeder(app);
+            seeder.seed(scale);
+            List<String> tokens = seeder.tokens(Math.min(scale.users, clients));
+            System.out.printf("Seeded %s in %.1f s%n", scale, (System.nanoTime() - seedStart) / 1e9);
+
+            Workloads workloads = new Workloads(new ApiClient(app.getBaseUrl()), tokens, scale.posts, hotPosts, mix);
+            LoadDriver driver = new LoadDriver(clients, warmup * 1000, seconds * 1000);
+            List<String> report = new ArrayList<>();
+            report.add(String.format("clients=%d seconds=%d %s", clients, seconds, scale));
+            for (String scenario : scenarios) {
+                LoadDriver.Operation operation = workloads.get(scenario.trim());
+                StatementCounter statements = app.getStatementCounter();
+                long statementsBefore = statements.get();
+                LoadDriver.Result result;
+                HeapSampler heap = new HeapSampler();
+                try {
+                    result = driver.run(scenario.trim(), operation);
+                } finally {
+                    heap.close();
+                }
+                // Warm-up requests issue statements too, so this slightly overstates the per-request count
+                double perRequest = result.getRequests() == 0 ? 0
+                        : (statements.get() - statementsBefore) / (double) result.getRequests();
+                report.add(String.format("%s  sql/req %6.1f  heap peak %5d MB  gc %4d (%d ms)", result, perRequest,
+                        heap.getPeakMb(), heap.getGcCount(), heap.getGcMillis()));
+                System.out.println(report.get(report.size() - 1));
+            }
+            System.out.println();
+            report.forEach(System.out::println);
+        }
+    }
+
+    static Map<String, Integer> parseMix(String spec) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String part : spec.split(",")) {
+            String[] pair = part.split(":");
+            weights.put(pair[0].trim(), Integer.parseInt(pair[1].trim()));
+        }
+        return weights;
+    }
+
+    static final class Workloads {
+        private final ApiClient api;
+        private final List<String> tokens;
+        private final int posts;
+        private final int hotPosts;
+        private final Map<String, Integer> mix;
+        private final int totalWeight;
+        private final AtomicLong signups = new AtomicLong();
+        private final String signupPrefix = Long.toString(System.currentTimeMillis() % 46656, 36);
+
+        Workloads(ApiClient api, List<String> tokens, int posts, int hotPosts, Map<String, Integer> mix) {
+            this.api = api;
+            this.tokens = tokens;
+            this.posts = posts;
+            this.hotPosts = hotPosts;
+            this.mix = mix;
+            this.totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+        }
+
+        LoadDriver.Operation get(String scenario) {
+            switch (scenario) {
+                case "feed":
+                    return this::feed;
+                case "thread":
+                    return this::thread;
+                case "like-storm":
+                    return this::likeStorm;
+                case "signup-burst":
+                    return (client, random) -> signup();
+                case "mixed":
+                    return this::mixed;
+                default:
+                    throw new IllegalArgumentException("Unknown scenario " + scenario);
+            }
+        }
+
+        private int feed(int client, ThreadLocalRandom random) {
+            return api.get("/api/posts/feed?limit=20", token(client));
+        }
+
+        private int thread(int client, ThreadLocalRandom random) {
+            return api.get("/api/comments/post/" + popularPost(random), token(client));
+        }
+
+        // Every client hammers the same few newest posts, so the counter rows are contended
+        private int likeStorm(int client, ThreadLocalRandom random) {
+            return api.postEmpty("/api/posts/" + (posts - random.nextInt(hotPosts)) + "/like", token(client));
+        }
+
+        private int signup() {
+            String username = "sb" + signupPrefix + Long.toString(signups.incrementAndGet(), 36);
+            return api.signup(username, username + "@example.com", Seeder.PASSWORD);
+        }
+
+        private int mixed(int client, ThreadLocalRandom random) {
+            int pick = random.nextInt(totalWeight);
+            for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+                pick -= entry.getValue();
+                if (pick < 0) {
+                    switch (entry.getKey()) {
+                        case "feed":
+                            return feed(client, random);
+                        case "thread":
+                            return thread(client, random);
+                        case "like":
+                            return api.postEmpty("/api/posts/" + popularPost(random) + "/like", token(client));
+                        case "signup":
+                            return signup();
+                        default:
+                            throw new IllegalArgumentException("Unknown mix entry " + entry.getKey());
+                    }
+                }
+            }
+            throw new IllegalStateException("Mix weights must be positive");
+        }
+
+        // Four out of five reads go to the newest fifth of the posts
+        private int popularPost(ThreadLocalRandom random) {
+            int recent = Math.max(1, posts / 5);
+            return random.nextInt(5) < 4 ? posts - random.nextInt(recent) : 1 + random.nextInt(posts);
+        }
+
+        private String token(int client) {
+            return tokens.get(client % tokens.size());
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.useronboarding.loadtest;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Runs one mixed workload per logging setup to show what request logging costs in throughput.
+// Arguments (all optional): clients=64 seconds=15 warmup=5 users=500 posts=1000 comments=4
+// bad-token-percent=5 variants=off,info-async,info-sync,debug-async,debug-sync, plus any app./spring./server. property.
+// Log lines go to stdout ahead of the report, so redirect it to a file or /dev/null to keep the console readable.
+// Variants share one JVM and run in order, so give warmup enough time that the first one is not paying for JIT.
+public class LoggingBenchmark {
+
+    // Application log level and appender for each variant
+    private static final Map<String, String[]> VARIANTS = new LinkedHashMap<>();
+
+    static {
+        VARIANTS.put("off", new String[] { "OFF", "ASYNC" });
+        VARIANTS.put("info-async", new String[] { "INFO", "ASYNC" });
+        VARIANTS.put("info-sync", new String[] { "INFO", "CONSOLE" });
+        VARIANTS.put("debug-async", new String[] { "DEBUG", "ASYNC" });
+        VARIANTS.put("debug-sync", new String[] { "DEBUG", "CONSOLE" });
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new Options(args);
+        int clients = options.getInt("clients", 64);
+        long seconds = options.getLong("seconds", 15);
+        long warmup = options.getLong("warmup", 5);
+        int badTokenPercent = options.getInt("bad-token-percent", 5);
+        Seeder.Scale scale = new Seeder.Scale(options.getInt("users", 500), options.getInt("posts", 1000),
+                options.getInt("comments", 4), 0, 0);
+        String[] variants = options.get("variants", String.join(",", VARIANTS.keySet())).split(",");
+
+        List<String> report = new ArrayList<>();
+        for (String variant : variants) {
+            String[] setup = VARIANTS.get(variant);
+            if (setup == null) {
+                throw new IllegalArgumentException("Unknown variant " + variant + "; expected one of " + VARIANTS.keySet());
+            }
+            Map<String, Object> overrides = options.overrides();
+            overrides.put("logging.level.com.useronboarding.platform", setup[0]);
+            overrides.put("app.logging.appender", setup[1]);
+
+            try (EmbeddedApp app = EmbeddedApp.start(overrides)) {
+                Seeder seeder = new Seeder(app);
+                seeder.seed(scale);
+                List<String> tokens = seeder.tokens(Math.min(scale.users, clients));
+                ApiClient api = new ApiClient(app.getBaseUrl());
+                LoadDriver driver = new LoadDriver(clients, warmup * 1000, seconds * 1000);
+                int posts = scale.posts;
+
+                LoadDriver.Result result = driver.run(variant, (client, random) -> {
+                    String token = tokens.get(client % tokens.size());
+                    long postId = 1 + random.nextInt(posts);
+                    int roll = random.nextInt(100);
+                    // A forged token is rejected and the request is served anonymously, as on the real site
+                    if (roll < badTokenPercent) {
+                        return api.get("/api/posts/" + postId, "not-a-valid-token");
+                    }
+                    if (roll < 45) {
+                        return api.get("/api/posts/feed?limit=20", token);
+                    }
+                    if (roll < 70) {
+                        return api.get("/api/comments/post/" + postId, token);
+                    }
+                    if (roll < 90) {
+                        return api.postEmpty("/api/posts/" + postId + "/like", token);
+                    }
+                    return api.addComment(token, postId, "Logging benchmark comment");
+                });
+                report.add(result + " level=" + setup[0] + " appender=" + setup[1]);
+            }
+        }
+        report.forEach(System.out::println);
+    }
+}
@@ -0,0 +1,56 @@
+package com.useronboarding.loadtest;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// key=value arguments. Keys under app., spring., server. and logging. are handed to the
+// application as property overrides; the rest configure the harness.
+public class Options {
+    private static final String[] PROPERTY_PREFIXES = { "app.", "spring.", "server.", "logging." };
+
+    private final Map<String, String> values = new HashMap<>();
+    private final Map<String, Object> overrides = new HashMap<>();
+
+    public Options(String[] args) {
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Expected key=value but got '" + arg + "'");
+            }
+            String key = arg.substring(0, eq).replaceFirst("^--", "");
+            String value = arg.substring(eq + 1);
+            if (isProperty(key)) {
+                overrides.put(key, value);
+            } else {
+                values.put(key, value);
+            }
+        }
+    }
+
+    public String get(String key, String defaultValue) {
+        return values.getOrDefault(key, defaultValue);
+    }
+
+    public int getInt(String key, int defaultValue) {
+        String value = values.get(key);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    public long getLong(String key, long defaultValue) {
+        String value = values.get(key);
+        return value == null ? defaultValue : Long.parseLong(value);
+    }
+
+    public Map<String, Object> overrides() {
+        return new HashMap<>(overrides);
+    }
+
+    private static boolean isProperty(String key) {
+        for (String prefix : PROPERTY_PREFIXES) {
+            if (key.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,160 @@
+package com.useronboarding.loadtest;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.useronboarding.platform.security.jwt.JwtUtils;
+import com.useronboarding.platform.security.services.UserDetailsImpl;
+import com.useronboarding.platform.service.CommentPaths;
+import com.useronboarding.platform.service.TimelineIndex;
+
+// Writes the dataset straight through the application's DataSource in JDBC batches, with
+// counters, paths and versions filled in as the application would have left them. Going
+// through HTTP would take hours at a million rows and would measure seeding, not the app.
+public class Seeder {
+    private static final int BATCH_SIZE = 1000;
+    private static final long HOUR_MS = 3_600_000L;
+    public static final String PASSWORD = "loadtest-password";
+
+    public static final class Scale {
+        public final int users;
+        public final int posts;
+        public final int commentsPerPost;
+        public final int repliesPerComment;
+        public final int likesPerPost;
+
+        public Scale(int users, int posts, int commentsPerPost, int repliesPerComment, int likesPerPost) {
+            if (likesPerPost > users) {
+                throw new IllegalArgumentException("likes-per-post cannot exceed users; each like needs its own user");
+            }
+            this.users = users;
+            this.posts = posts;
+            this.commentsPerPost = commentsPerPost;
+            this.repliesPerComment = repliesPerComment;
+            this.likesPerPost = likesPerPost;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("users=%d posts=%d comments=%d replies=%d likes=%d", users, posts,
+                    (long) posts * commentsPerPost, (long) posts * commentsPerPost * repliesPerComment,
+                    (long) posts * likesPerPost);
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JwtUtils jwtUtils;
+    private final TimelineIndex timelineIndex;
+    private final Random random = new Random(7);
+
+    public Seeder(EmbeddedApp app) {
+        this.jdbcTemplate = app.getContext().getBean(JdbcTemplate.class);
+        this.jwtUtils = app.getContext().getBean(JwtUtils.class);
+        this.timelineIndex = app.getContext().getBean(TimelineIndex.class);
+    }
+
+    // The database is fresh, so identity columns hand out 1..n in insertion order
+    public void seed(Scale scale) {
+        long now = System.currentTimeMillis();
+        String hash = new BCryptPasswordEncoder(4).encode(PASSWORD);
+        Integer roleId = jdbcTemplate.queryForObject("SELECT id FROM roles WHERE name = 'ROLE_USER'", Integer.class);
+
+        List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+        for (int i = 1; i <= scale.users; i++) {
+            Timestamp joined = new Timestamp(now - (long) (scale.users - i) * HOUR_MS);
+            rows.add(new Object[] { "loaduser" + i, "loaduser" + i + "@example.com", hash, joined, joined });
+            rows = flush("INSERT INTO users (username, email, password, join_date, updated_at, token_version, "
+                    + "follower_count, following_count, version) VALUES (?, ?, ?, ?, ?, 0, 0, 0, 0)", rows, i == scale.users);
+        }
+        jdbcTemplate.update("INSERT INTO user_roles (user_id, role_id) SELECT id, ? FROM users", roleId);
+
+        // Posts get increasing timestamps, so id order is feed order
+        for (int i = 1; i <= scale.posts; i++) {
+            Timestamp created = new Timestamp(now - (long) (scale.posts - i) * 60_000L);
+            long comments = (long) scale.commentsPerPost * (1 + scale.repliesPerComment);
+            rows.add(new Object[] { "Load test post " + i, 1 + random.nextInt(scale.users), created, created,
+                    scale.likesPerPost, comments });
+            rows = flush("INSERT INTO posts (content, user_id, created_at, updated_at, like_count, comment_count, version) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, 0)", rows, i == scale.posts);
+        }
+
+        seedComments(scale, now);
+        seedLikes(scale);
+        // The rows bypassed the application, so the in-process timeline index has not seen them
+        timelineIndex.rebuild();
+    }
+
+    private void seedComments(Scale scale, long now) {
+        String insert = "INSERT INTO comments (content, user_id, post_id, parent_id, created_at, updated_at, "
+                + "like_count, reply_count, path, depth, version) VALUES (?, ?, ?, ?, ?, ?, 0, ?, ?, ?, 0)";
+        long topLevel = (long) scale.posts * scale.commentsPerPost;
+        List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+        long id = 0;
+        for (int post = 1; post <= scale.posts; post++) {
+            for (int c = 0; c < scale.commentsPerPost; c++) {
+                id++;
+                Timestamp created = new Timestamp(now - (topLevel - id) * 1000L);
+                rows.add(new Object[] { "Comment " + c + " on post " + post, 1 + random.nextInt(scale.users), post, null,
+                        created, created, scale.repliesPerComment, CommentPaths.child(null, id), 0 });
+                rows = flush(insert, rows, id == topLevel);
+            }
+        }
+
+        // Replies follow all top-level comments, each parent's replies in one consecutive run
+        long replies = topLevel * scale.repliesPerComment;
+        for (long r = 1; r <= replies; r++) {
+            id++;
+            long parent = (r - 1) / scale.repliesPerComment + 1;
+            long post = (parent - 1) / scale.commentsPerPost + 1;
+            Timestamp created = new Timestamp(now - (replies - r) * 500L);
+            rows.add(new Object[] { "Reply " + r, 1 + random.nextInt(scale.users), post, parent, created, created, 0,
+                    CommentPaths.child(CommentPaths.child(null, parent), id), 1 });
+            rows = flush(insert, rows, r == replies);
+        }
+    }
+
+    // Likers of a post are a random run of consecutive users, which keeps (post, user) unique
+    private void seedLikes(Scale scale) {
+        if (scale.likesPerPost == 0) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+        for (int post = 1; post <= scale.posts; post++) {
+            int first = random.nextInt(scale.users);
+            for (int i = 0; i < scale.likesPerPost; i++) {
+                rows.add(new Object[] { post, 1 + (first + i) % scale.users });
+                rows = flush("INSERT INTO post_likes (post_id, user_id) VALUES (?, ?)", rows,
+                        post == scale.posts && i == scale.likesPerPost - 1);
+            }
+        }
+    }
+
+    private List<Object[]> flush(String sql, List<Object[]> rows, boolean last) {
+        if (rows.size() < BATCH_SIZE && !last) {
+            return rows;
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, rows);
+        }
+        return new ArrayList<>(BATCH_SIZE);
+    }
+
+    // Signed without a login round trip; the tokens are exactly what /api/auth/signin would issue
+    public List<String> tokens(int count) {
+        List<String> tokens = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            UserDetailsImpl principal = new UserDetailsImpl((long) i, "loaduser" + i, "loaduser" + i + "@example.com",
+                    null, List.of(new SimpleGrantedAuthority("ROLE_USER")), 0);
+            tokens.add(jwtUtils.generateJwtToken(
+                    new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities())));
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,96 @@
+package com.useronboarding.loadtest;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+// Counts statements the application sends to the database, whether issued by Hibernate or by
+// JdbcTemplate. A batch counts once, since it is one round trip.
+public class StatementCounter implements BeanPostProcessor {
+    private final LongAdder executed = new LongAdder();
+
+    public long get() {
+        return executed.sum();
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource) || bean instanceof CountingDataSource) {
+            return bean;
+        }
+        return new CountingDataSource((DataSource) bean);
+    }
+
+    private class CountingDataSource extends DelegatingDataSource {
+        CountingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return wrap(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return wrap(super.getConnection(username, password));
+        }
+
+        private Connection wrap(Connection connection) {
+            return proxy(Connection.class, connection, (method, result) -> {
+                if (result instanceof CallableStatement) {
+                    return proxy(CallableStatement.class, result, this::count);
+                }
+                if (result instanceof PreparedStatement) {
+                    return proxy(PreparedStatement.class, result, this::count);
+                }
+                if (result instanceof Statement) {
+                    return proxy(Statement.class, result, this::count);
+                }
+                return result;
+            });
+        }
+
+        private Object count(Method method, Object result) {
+            if (method.getName().startsWith("execute")) {
+                executed.increment();
+            }
+            return result;
+        }
+    }
+
+    @FunctionalInterface
+    private interface AfterCall {
+        Object apply(Method method, Object result);
+    }
+
+    private static <T> T proxy(Class<T> type, Object target, AfterCall afterCall) {
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (self, method, args) -> {
+            switch (method.getName()) {
+                case "equals":
+                    return self == args[0];
+                case "hashCode":
+                    return System.identityHashCode(self);
+                default:
+                    break;
+            }
+            try {
+                return afterCall.apply(method, method.invoke(target, args));
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        });
+        return type.cast(proxy);
+    }
+}